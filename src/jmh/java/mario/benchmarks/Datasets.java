@@ -0,0 +1,210 @@
+package mario.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import mario.commands.Command;
+import mario.tasks.Deadline;
+import mario.tasks.Events;
+import mario.tasks.Task;
+import mario.tasks.TimedTask;
+import mario.tasks.ToDo;
+
+/**
+ * Deterministic generators for the inputs the benchmarks run against. Every generator is seeded,
+ * so a given size always produces the same tasks and commands and results stay comparable
+ * between runs.
+ * <p>
+ * Tasks are a mix of roughly half to-dos, a quarter deadlines and a quarter events, with
+ * descriptions of two to six words drawn from a small vocabulary so that searches hit a
+ * realistic share of them. Dates fall within {@link #DAYS} days of {@link #FIRST_DAY}.
+ */
+public final class Datasets {
+    /** First day that generated deadlines and events can fall on. */
+    public static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    /** Number of days generated deadlines and events are spread over. */
+    public static final int DAYS = 365;
+    /** Seed used when a benchmark does not need a different one. */
+    public static final long SEED = 42;
+
+    private static final String[] WORDS = {
+        "read", "book", "return", "library", "buy", "milk", "bread", "call", "mom", "project",
+        "report", "submit", "meeting", "team", "review", "code", "fix", "bug", "write", "essay",
+        "clean", "room", "pay", "rent", "gym", "run", "lunch", "dinner", "plan", "trip",
+        "email", "boss", "update", "resume", "study", "exam", "tutorial", "lecture", "laundry", "groceries",
+    };
+
+    private Datasets() {
+    }
+
+    /**
+     * Returns {@code count} tasks, about a third of them marked done, with ids 1 to {@code count}.
+     *
+     * @param count the number of tasks.
+     * @param seed the seed of the generator.
+     * @return the tasks, in id order.
+     */
+    public static ArrayList<Task> tasks(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = task(random);
+            task.setId(i + 1);
+            if (random.nextInt(3) == 0) {
+                task.markDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    /**
+     * Returns {@code count} storage lines in the form the text storage file holds them,
+     * each starting with its task's id.
+     *
+     * @param count the number of lines.
+     * @param seed the seed of the generator.
+     * @return the lines.
+     */
+    public static List<String> storageLines(int count, long seed) {
+        List<String> lines = new ArrayList<>(count);
+        for (Task task : tasks(count, seed)) {
+            String line = task instanceof TimedTask ? ((TimedTask) task).toStorageString() : task.toString();
+            lines.add("#" + task.getId() + " " + line);
+        }
+        return lines;
+    }
+
+    /**
+     * Returns {@code count} valid inputs of the given command type, as a user would type them.
+     * Commands referring to tasks use positions and ids between 1 and {@code taskCount}.
+     *
+     * @param type the type of command; {@link Command.Type#UNKNOWN} yields unrecognised commands.
+     * @param count the number of inputs.
+     * @param taskCount the number of tasks the commands may refer to.
+     * @param seed the seed of the generator.
+     * @return the inputs.
+     */
+    public static List<String> commands(Command.Type type, int count, int taskCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> inputs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inputs.add(command(type, taskCount, random));
+        }
+        return inputs;
+    }
+
+    /**
+     * Returns {@code count} search keywords: mostly vocabulary words and fragments of them,
+     * which match many tasks, and some words that match none.
+     *
+     * @param count the number of keywords.
+     * @param seed the seed of the generator.
+     * @return the keywords.
+     */
+    public static List<String> keywords(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> keywords = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String word = word(random);
+            switch (random.nextInt(4)) {
+            case 0:
+                keywords.add(word.substring(0, Math.min(3, word.length())));
+                break;
+            case 1:
+                keywords.add(word + "zz");
+                break;
+            default:
+                keywords.add(word);
+                break;
+            }
+        }
+        return keywords;
+    }
+
+    /**
+     * Returns {@code count} days within the range generated tasks are spread over.
+     *
+     * @param count the number of days.
+     * @param seed the seed of the generator.
+     * @return the days.
+     */
+    public static List<LocalDate> days(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<LocalDate> days = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            days.add(day(random));
+        }
+        return days;
+    }
+
+    private static Task task(SplittableRandom random) {
+        int kind = random.nextInt(4);
+        if (kind == 0) {
+            return new Deadline(description(random), day(random));
+        } else if (kind == 1) {
+            LocalDateTime start = dateTime(random);
+            return new Events(description(random), start, start.plusHours(1 + random.nextInt(48)));
+        } else {
+            return new ToDo(description(random));
+        }
+    }
+
+    private static String command(Command.Type type, int taskCount, SplittableRandom random) {
+        switch (type) {
+        case TODO:
+            return "todo " + description(random);
+        case DEADLINE:
+            return "deadline " + description(random) + " /by " + day(random);
+        case EVENT:
+            LocalDateTime start = dateTime(random);
+            return "event " + description(random) + " /from " + start + " /to " + start.plusHours(2);
+        case MARK:
+            return "mark " + target(taskCount, random);
+        case UNMARK:
+            return "unmark " + target(taskCount, random);
+        case DELETE:
+            return "delete " + target(taskCount, random);
+        case LIST:
+            return "list";
+        case FIND:
+            return "find " + word(random);
+        case VIEW:
+            LocalDate from = day(random);
+            return random.nextBoolean() ? "view " + from : "view " + from + " " + from.plusDays(random.nextInt(30));
+        case BYE:
+            return "bye";
+        default:
+            return word(random) + " " + description(random);
+        }
+    }
+
+    private static String target(int taskCount, SplittableRandom random) {
+        int number = 1 + random.nextInt(Math.max(1, taskCount));
+        return random.nextBoolean() ? "#" + number : String.valueOf(number);
+    }
+
+    private static String description(SplittableRandom random) {
+        int words = 2 + random.nextInt(5);
+        StringBuilder sb = new StringBuilder(word(random));
+        for (int i = 1; i < words; i++) {
+            sb.append(' ').append(word(random));
+        }
+        return sb.toString();
+    }
+
+    private static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static LocalDate day(SplittableRandom random) {
+        return FIRST_DAY.plusDays(random.nextInt(DAYS));
+    }
+
+    private static LocalDateTime dateTime(SplittableRandom random) {
+        return day(random).atTime(random.nextInt(24), random.nextInt(4) * 15);
+    }
+}
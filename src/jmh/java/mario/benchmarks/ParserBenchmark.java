@@ -0,0 +1,80 @@
+package mario.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import mario.commands.Command;
+import mario.exceptions.MarioException;
+import mario.tasks.Task;
+import mario.util.Parser;
+
+/**
+ * Measures {@link Parser#parse} for each type of command and {@link Parser#parseStorageLine}
+ * for the lines of a storage file. Each invocation parses the next input of a pre-generated
+ * set, so the benchmark sees varied descriptions, dates and task numbers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ParserBenchmark {
+    private static final int INPUTS = 1024;
+
+    /**
+     * Inputs of one type of command.
+     */
+    @State(Scope.Thread)
+    public static class Commands {
+        @Param({"TODO", "DEADLINE", "EVENT", "MARK", "UNMARK", "DELETE", "LIST", "FIND", "VIEW", "BYE"})
+        public Command.Type type;
+
+        private List<String> inputs;
+        private int next;
+
+        @Setup
+        public void generate() {
+            inputs = Datasets.commands(type, INPUTS, 10_000, Datasets.SEED);
+        }
+
+        String next() {
+            next = (next + 1) & (INPUTS - 1);
+            return inputs.get(next);
+        }
+    }
+
+    /**
+     * Lines of a storage file.
+     */
+    @State(Scope.Thread)
+    public static class StorageLines {
+        private List<String> lines;
+        private int next;
+
+        @Setup
+        public void generate() {
+            lines = Datasets.storageLines(INPUTS, Datasets.SEED);
+        }
+
+        String next() {
+            next = (next + 1) & (INPUTS - 1);
+            return lines.get(next);
+        }
+    }
+
+    @Benchmark
+    public Command parse(Commands commands) throws MarioException {
+        return Parser.parse(commands.next());
+    }
+
+    @Benchmark
+    public Task parseStorageLine(StorageLines lines) {
+        return Parser.parseStorageLine(lines.next());
+    }
+}
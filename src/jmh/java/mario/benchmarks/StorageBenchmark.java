@@ -0,0 +1,82 @@
+package mario.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import mario.tasks.Task;
+import mario.util.Storage;
+
+/**
+ * Measures {@link Storage#save} and {@link Storage#load} of whole task lists in both storage
+ * formats. The files are written to the {@code data} directory under a name of their own and
+ * deleted once the trial is over.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"TEXT", "BINARY"})
+    public Storage.Format format;
+
+    private final String prefix = "benchmark-" + System.nanoTime();
+    private Storage storage;
+    private ArrayList<Task> tasks;
+
+    /**
+     * Generates the tasks and saves them once, so that there is a file to load.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        tasks = Datasets.tasks(size, Datasets.SEED);
+        storage = new Storage(prefix + ".txt", format);
+        storage.save(tasks);
+    }
+
+    /**
+     * Deletes every file the trial wrote.
+     *
+     * @throws IOException if a file cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        storage.flush();
+        try (Stream<Path> files = Files.walk(Path.of("data"))) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                if (p.toString().contains(prefix)) {
+                    Files.delete(p);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        storage.save(tasks);
+    }
+
+    @Benchmark
+    public List<Task> load() throws IOException {
+        return storage.load();
+    }
+}
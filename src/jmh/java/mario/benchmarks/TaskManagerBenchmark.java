@@ -0,0 +1,61 @@
+package mario.benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import mario.tasks.Task;
+import mario.tasks.TimedTask;
+import mario.util.TaskManager;
+
+/**
+ * Measures the queries {@link TaskManager} answers from its indexes: {@link TaskManager#find}
+ * with keywords that match many, few or no tasks, and {@link TaskManager#getScheduleFor} on
+ * days spread over the range the tasks are scheduled in.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class TaskManagerBenchmark {
+    private static final int QUERIES = 256;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private TaskManager tasks;
+    private List<String> keywords;
+    private List<LocalDate> days;
+    private int next;
+
+    /**
+     * Fills the task manager and generates the queries.
+     */
+    @Setup
+    public void setUp() {
+        tasks = new TaskManager(size);
+        tasks.addAll(Datasets.tasks(size, Datasets.SEED));
+        keywords = Datasets.keywords(QUERIES, Datasets.SEED);
+        days = Datasets.days(QUERIES, Datasets.SEED);
+    }
+
+    @Benchmark
+    public List<Task> find() {
+        next = (next + 1) & (QUERIES - 1);
+        return tasks.find(keywords.get(next));
+    }
+
+    @Benchmark
+    public List<TimedTask> getScheduleFor() {
+        next = (next + 1) & (QUERIES - 1);
+        return tasks.getScheduleFor(days.get(next));
+    }
+}
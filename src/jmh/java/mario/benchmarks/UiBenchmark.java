@@ -0,0 +1,44 @@
+package mario.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import mario.tasks.Task;
+import mario.util.Ui;
+
+/**
+ * Measures rendering the whole task list with {@link Ui#showTasks}, as the {@code list}
+ * command does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class UiBenchmark {
+    @Param({"100", "10000", "100000"})
+    public int size;
+
+    private final Ui ui = new Ui();
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        tasks = Datasets.tasks(size, Datasets.SEED);
+    }
+
+    @Benchmark
+    public String showTasks() throws IOException {
+        StringBuilder out = new StringBuilder();
+        ui.showTasks(out, tasks, 0);
+        return out.toString();
+    }
+}
@@ -0,0 +1,92 @@
+package mario;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+
+/**
+ * A cell of the chat transcript, showing one message as a speech bubble next to the speaker's picture.
+ * <p>
+ * The layout is built once in code rather than loaded from FXML, and the {@link javafx.scene.control.ListView}
+ * reuses the same few cells for whichever messages are on screen, so a message costs no nodes of its own.
+ * User messages sit on the right with the picture after the text; Mario's replies are flipped to the left.
+ */
+public class DialogCell extends ListCell<DialogCell.Message> {
+    private static final String REPLY_STYLE = "reply-label";
+    private static final double IMAGE_SIZE = 99.0;
+    /** Horizontal space taken by the picture, the bubble's margins and the cell's padding. */
+    private static final double SIDE_SPACE = IMAGE_SIZE + 2 * 7.0 + 2 * 5.0 + 20.0;
+
+    private final HBox box = new HBox();
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
+    private final Image userImage;
+    private final Image marioImage;
+
+    /**
+     * One line of the conversation.
+     *
+     * @param text what was said.
+     * @param isUser whether the user said it, rather than Mario.
+     */
+    public record Message(String text, boolean isUser) {
+    }
+
+    /**
+     * Creates an empty cell.
+     *
+     * @param userImage the picture shown beside the user's messages.
+     * @param marioImage the picture shown beside Mario's replies.
+     */
+    public DialogCell(Image userImage, Image marioImage) {
+        this.userImage = userImage;
+        this.marioImage = marioImage;
+
+        dialog.setWrapText(true);
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setPadding(new Insets(6.0));
+        dialog.maxWidthProperty().bind(widthProperty().subtract(SIDE_SPACE));
+        HBox.setMargin(dialog, new Insets(0, 7.0, 0, 7.0));
+
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitWidth(IMAGE_SIZE);
+        displayPicture.setFitHeight(IMAGE_SIZE);
+        displayPicture.setPreserveRatio(true);
+        displayPicture.setPickOnBounds(true);
+
+        box.setPadding(new Insets(15.0, 5.0, 15.0, 5.0));
+        // Let the list's width decide the cell's, so long messages wrap instead of scrolling sideways
+        setPrefWidth(0);
+    }
+
+    @Override
+    protected void updateItem(Message message, boolean empty) {
+        super.updateItem(message, empty);
+        setText(null);
+        if (empty || message == null) {
+            setGraphic(null);
+            return;
+        }
+
+        dialog.setText(message.text());
+        if (message.isUser()) {
+            displayPicture.setImage(userImage);
+            box.getChildren().setAll(dialog, displayPicture);
+            box.setAlignment(Pos.TOP_RIGHT);
+            dialog.getStyleClass().remove(REPLY_STYLE);
+        } else {
+            displayPicture.setImage(marioImage);
+            box.getChildren().setAll(displayPicture, dialog);
+            box.setAlignment(Pos.TOP_LEFT);
+            if (!dialog.getStyleClass().contains(REPLY_STYLE)) {
+                dialog.getStyleClass().add(REPLY_STYLE);
+            }
+        }
+        setGraphic(box);
+    }
+}
@@ -1,13 +1,60 @@
 package mario;
 
+import java.io.IOException;
+import java.util.Arrays;
+
+import mario.server.MarioServer;
 import javafx.application.Application;
 
 /**
  * The main entry point of the application.
- * Launches the JavaFX application.
+ * Launches the JavaFX application, or with one of the options below runs headless:
+ * <ul>
+ *     <li>{@code --cli} reads commands from standard input, like {@link Mario#run()};</li>
+ *     <li>{@code --batch FILE} runs the commands in {@code FILE} as one batch;</li>
+ *     <li>{@code --serve [PORT]} starts a {@link MarioServer}.</li>
+ * </ul>
+ * The headless paths never touch a JavaFX class, so the toolkit is neither loaded nor started,
+ * and they work from a jar built without JavaFX.
  */
 public class Launcher {
-    public static void main(String[] args) {
-        Application.launch(Main.class, args);
+    /**
+     * Starts the interface chosen by the first argument.
+     *
+     * @param args the command-line arguments.
+     * @throws IOException if a batch file cannot be read or the server port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "";
+        switch (mode) {
+        case "--cli":
+            Mario.main(new String[0]);
+            break;
+        case "--batch":
+            if (args.length != 2) {
+                System.err.println("Usage: --batch FILE");
+                System.exit(2);
+            }
+            Mario.main(args);
+            break;
+        case "--serve":
+            MarioServer.main(Arrays.copyOfRange(args, 1, args.length));
+            break;
+        default:
+            launchGui(args);
+        }
+    }
+
+    /**
+     * Launches the JavaFX application. JavaFX classes are first loaded here, so they stay
+     * unloaded on the headless paths.
+     */
+    private static void launchGui(String[] args) {
+        try {
+            Application.launch(Main.class, args);
+        } catch (NoClassDefFoundError e) {
+            System.err.println("This build of Mario has no JavaFX. Use --cli, --batch FILE or --serve [PORT].");
+            System.exit(1);
+        }
     }
 }
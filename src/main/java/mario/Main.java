@@ -14,6 +14,7 @@ import javafx.stage.Stage;
 public class Main extends Application {
 
     private Mario mario = new Mario();
+    private MainWindow mainWindow;
 
     @Override
     public void start(Stage stage) {
@@ -26,11 +27,18 @@ public class Main extends Application {
             stage.setMinWidth(417);
             stage.setTitle("Mario");
 
-            fxmlLoader.<MainWindow>getController().setDuke(mario); // inject the Duke instance
+            mainWindow = fxmlLoader.getController();
+            mainWindow.setDuke(mario); // inject the Duke instance
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
-}
 
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.shutdown();
+        }
+    }
+}
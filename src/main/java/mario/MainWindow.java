@@ -1,69 +1,179 @@
 package mario;
 
-import mario.commands.Command;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 
 /**
  * The MainWindow class serves as the main controller for the application's graphical user interface.
  * It manages user input, processes interactions with the Bingy backend, and displays dialog exchanges
  * between the user and Bingy within the GUI.
+ * <p>
+ * The transcript is a virtualized {@link ListView} of {@link DialogCell.Message}s, so only the messages
+ * on screen have nodes, and it keeps the latest {@value #MAX_MESSAGES} messages only.
+ * <p>
+ * Commands never run on the JavaFX application thread. Each one is queued, in the order it was sent, on a
+ * single worker thread, and its reply is posted back with {@link Platform#runLater}; the user can keep
+ * typing meanwhile, and a spinner shows while commands are still waiting for their replies.
+ * <p>
+ * Once a {@code bye} is queued, further input is refused with a note in the transcript rather than
+ * queued behind it, since it would never run. Closing the window instead lets the commands already
+ * queued finish, for up to {@value #DRAIN_TIMEOUT_SECONDS} seconds, so none is lost without a word.
  */
 public class MainWindow extends AnchorPane {
+    /** Number of messages kept in the transcript; older ones are dropped. */
+    static final int MAX_MESSAGES = 500;
+    /** Seconds to wait, when the window closes, for queued commands to finish. */
+    static final int DRAIN_TIMEOUT_SECONDS = 30;
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<DialogCell.Message> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator pendingIndicator;
 
     private Mario mario;
+    /** Runs commands one at a time, in the order they were sent. */
+    private final ThreadPoolExecutor worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "mario-gui-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+    /** Whether a command to exit is queued, so no more input is taken; used on the application thread only. */
+    private boolean isByeQueued;
+    /** Number of commands sent but not yet answered; used on the application thread only. */
+    private int pendingCount;
+
+    private final ObservableList<DialogCell.Message> messages = FXCollections.observableArrayList();
 
     private Image userImage = new Image(this.getClass().getResourceAsStream("/images/DaUser.png"));
     private Image dukeImage = new Image(this.getClass().getResourceAsStream("/images/DaDuke.png"));
 
     /**
-     * Initializes the main window. Binds the vertical scroll value of the scroll pane
-     * to the height property of the dialog container so that the scroll pane
-     * automatically scrolls to show the latest dialog messages.
+     * Initializes the main window. Backs the transcript with the message list and draws
+     * each visible message with a recycled {@link DialogCell}.
      */
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        dialogList.setItems(messages);
+        dialogList.setCellFactory(list -> new DialogCell(userImage, dukeImage));
     }
 
-    /** Injects the Duke instance */
+    /**
+     * Injects the Duke instance and shows the result of loading the saved tasks once the
+     * worker has loaded them. The worker also publishes Duke's metrics over JMX.
+     */
     public void setDuke(Mario d) {
         mario = d;
+        submit(() -> {
+            mario.registerMetrics("gui");
+            return mario.getStartupReport();
+        });
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Duke's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Echoes the user input in the transcript and queues it for Duke, whose reply is shown when
+     * it is ready. Clears the user input straight away, so the next command can be typed.
+     * Input sent while a {@code bye} is queued is refused, and the transcript says so.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = mario.getResponse(input);
-        Command.Type commandType = mario.getCommandType();
+        userInput.clear();
+        addMessages(new DialogCell.Message(input, true));
+        if (isByeQueued) {
+            addMessages(new DialogCell.Message("I'm already saying goodbye, so I won't run that.", false));
+            return;
+        }
+        boolean isBye = mario.isExitCommand(input);
+        isByeQueued = isBye;
+        submit(() -> {
+            StringBuilder response = new StringBuilder();
+            if (mario.respond(input, response)) {
+                Platform.runLater(() -> {
+                    Platform.exit();
+                    System.exit(0);
+                });
+            } else if (isBye) {
+                // The goodbye failed, for instance because the tasks could not be saved; stay open
+                Platform.runLater(() -> isByeQueued = false);
+            }
+            return response.toString();
+        });
+    }
 
-        if (commandType == Command.Type.BYE) {
-            Platform.exit();
-            System.exit(0);
+    /**
+     * Queues a job producing one of Duke's replies on the worker thread, and shows the reply in the
+     * transcript once the job is done.
+     */
+    private void submit(Supplier<String> job) {
+        pendingCount++;
+        updatePendingIndicator();
+        worker.execute(() -> {
+            String reply;
+            try {
+                reply = job.get();
+            } catch (RuntimeException e) {
+                reply = "Something broke while I was working on that: " + e.getMessage();
+            }
+            String shown = reply;
+            Platform.runLater(() -> {
+                pendingCount--;
+                updatePendingIndicator();
+                addMessages(new DialogCell.Message(shown, false));
+            });
+        });
+    }
+
+    private void updatePendingIndicator() {
+        pendingIndicator.setVisible(pendingCount > 0);
+        userInput.setPromptText(pendingCount == 0 ? ""
+                : "Mario is still on " + pendingCount + (pendingCount == 1 ? " command..." : " commands..."));
+    }
+
+    /**
+     * Stops taking commands and waits up to {@value #DRAIN_TIMEOUT_SECONDS} seconds for the queued ones
+     * to finish. The worker is not interrupted, since that would abandon a save half-way; if commands
+     * are still queued when the wait ends, how many were not run is printed to standard error.
+     */
+    public void shutdown() {
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                int notRun = worker.getQueue().size();
+                System.err.println("Exited with " + notRun + (notRun == 1 ? " command" : " commands")
+                        + " still queued; they were not run.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+    }
 
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getDukeDialog(response, dukeImage)
-        );
-        userInput.clear();
+    /**
+     * Appends messages to the transcript, drops the oldest ones beyond {@link #MAX_MESSAGES}
+     * and scrolls to the latest.
+     */
+    private void addMessages(DialogCell.Message... added) {
+        messages.addAll(added);
+        if (messages.size() > MAX_MESSAGES) {
+            messages.remove(0, messages.size() - MAX_MESSAGES);
+        }
+        dialogList.scrollTo(messages.size() - 1);
     }
 }
@@ -1,12 +1,22 @@
 package mario;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Scanner;
 
 import mario.commands.Command;
 import mario.exceptions.MarioException;
 import mario.tasks.Task;
+import mario.util.Metrics;
 import mario.util.Parser;
 import mario.util.Storage;
 import mario.util.TaskManager;
@@ -18,48 +28,101 @@ import mario.util.Ui;
  */
 public class Mario {
     /** Default maximum number of tasks the TaskManager can hold. */
-    private static final int DEFAULT_CAPACITY = 100;
+    public static final int DEFAULT_CAPACITY = 100;
 
-    /** Default storage file used to persist tasks. */
+    /**
+     * Default storage file used to persist tasks. Run with {@code -Dmario.storage.format=binary}
+     * to keep it in the compact binary format instead.
+     */
     private static final String DEFAULT_STORAGE_FILE = "tasks.txt";
 
-    private static final TaskManager taskManager = new TaskManager(DEFAULT_CAPACITY);
-    private static final Storage storage = new Storage(DEFAULT_STORAGE_FILE);
+    /** Number of batch commands after which the batch's changes are saved as a checkpoint. */
+    private static final int BATCH_CHECKPOINT_INTERVAL = 10_000;
+
+    private final TaskManager taskManager;
+    private final Storage storage;
     private final Ui ui = new Ui();
-    private boolean isRunning = true;
-    private Command.Type commandType = Command.Type.UNKNOWN;
+    /** Report produced by the one-time load of {@link #storage}, or null until it has happened. */
+    private volatile String startupReport;
+    private volatile boolean isRunning = true;
+    private volatile Command.Type commandType = Command.Type.UNKNOWN;
 
+    /**
+     * Creates a chatbot backed by the default storage file.
+     */
     public Mario() {
+        this(new TaskManager(DEFAULT_CAPACITY), Storage.fromSystemProperties(DEFAULT_STORAGE_FILE));
+    }
+
+    /**
+     * Creates a chatbot that serves the given task list and persists it to the given storage.
+     * The tasks saved in {@code storage} are loaded into {@code taskManager} the first time they are
+     * needed, so the pair should be handed to a single {@code Mario}.
+     * <p>
+     * One instance may serve several threads at once: read-only commands run concurrently, while
+     * commands that change the tasks run one at a time so the journal matches the task list.
+     *
+     * @param taskManager the task list to serve; normally empty.
+     * @param storage where the tasks are loaded from and saved to.
+     */
+    public Mario(TaskManager taskManager, Storage storage) {
+        this.taskManager = taskManager;
+        this.storage = storage;
+    }
+
+    /**
+     * Loads the saved tasks into the {@link TaskManager} the first time any front end needs them.
+     * Later calls return the report of that first load.
+     *
+     * @return a message stating how many tasks were loaded and how long startup took.
+     */
+    public String getStartupReport() {
+        String report = startupReport;
+        if (report != null) {
+            return report;
+        }
+        synchronized (this) {
+            if (startupReport == null) {
+                startupReport = loadTasks();
+            }
+            return startupReport;
+        }
+    }
+
+    private String loadTasks() {
+        long start = System.nanoTime();
         try {
             ArrayList<Task> loaded = storage.load();
             assert loaded != null : "Storage.load() should never return null";
             taskManager.addAll(loaded);
         } catch (IOException e) {
-            System.out.println(ui.sendMessage("Starting fresh (no saved tasks found)."));
+            return ui.sendMessage("Starting fresh (no saved tasks found).");
         }
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+        compactStorageIfDue();
+
+        long sinceLaunch = ProcessHandle.current().info().startInstant()
+                .map(launched -> Duration.between(launched, Instant.now()).toMillis())
+                .orElse(-1L);
+        String report = ui.showStartupReport(taskManager.getSize(), loadMillis, sinceLaunch);
+        List<String> problems = storage.getLoadProblems();
+        return problems.isEmpty() ? report : report + "\n" + ui.showLoadProblems(problems);
     }
 
     /**
      * Starts the main program loop.
-     * Loads tasks from storage, greets the user, and continuously reads input
+     * Greets the user, loads tasks from storage and continuously reads input
      * until the user exits.
      */
     public void run() {
         System.out.println(ui.greet());
-        try {
-            ArrayList<Task> loaded = storage.load();
-
-            assert loaded != null : "Storage.load() should never return null";
-
-            taskManager.addAll(loaded);
-        } catch (IOException e) {
-            System.out.println(ui.sendMessage("Starting fresh (no saved tasks found)."));
-        }
+        System.out.println(getStartupReport());
+        registerMetrics("cli");
         Scanner sc = new Scanner(System.in);
         while (isRunning) {
             String input = sc.nextLine();
-            String response = getResponse(input);
-            System.out.println(response);
+            respond(input, System.out);
+            System.out.println();
         }
         sc.close();
     }
@@ -73,21 +136,171 @@ public class Mario {
      * @return a response String.
      */
     public String getResponse(String input) {
+        StringBuilder sb = new StringBuilder();
+        respond(input, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Parses and executes user input like {@link #getResponse(String)}, but writes the response
+     * to {@code out} as it is produced instead of building it in memory first.
+     *
+     * @param input raw user input.
+     * @param out where the response is written.
+     * @return true if the input was a command to exit.
+     */
+    public boolean respond(String input, Appendable out) {
+        getStartupReport();
         try {
-            Command c = Parser.parse(input);
-            this.commandType = c.getType();
-            String out = c.execute(taskManager, storage, ui);
+            try {
+                long start = System.nanoTime();
+                Command c = parseTimed(input, start);
+                long parsed = System.nanoTime();
+                storage.getMetrics().record(c.getType(), Metrics.Phase.PARSE, parsed - start);
+                this.commandType = c.getType();
+                if (c.isReadOnly()) {
+                    executeTimed(c, out, parsed);
+                } else {
+                    synchronized (storage) {
+                        executeTimed(c, out, System.nanoTime());
+                    }
+                }
 
-            if (c.isExit()) {
-                this.isRunning = false;
+                if (c.isExit()) {
+                    this.isRunning = false;
+                }
+                return c.isExit();
+            } catch (MarioException e) {
+                out.append(ui.sendMessage(e.getMessage()));
+                return false;
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns true if the input parses as a command to exit, without running it. Lets a front end
+     * that queues commands stop taking more once an exit is on its way.
+     *
+     * @param input raw user input.
+     * @return true if the input is a valid command to exit.
+     */
+    public boolean isExitCommand(String input) {
+        try {
+            return Parser.parse(input).isExit();
+        } catch (MarioException e) {
+            return false;
+        }
+    }
 
-            return out;
+    /**
+     * Parses user input. If it fails to parse, the time taken is recorded as the parse phase of
+     * {@link Command.Type#UNKNOWN}; otherwise the caller records it under the command's type.
+     */
+    private Command parseTimed(String input, long start) throws MarioException {
+        try {
+            return Parser.parse(input);
         } catch (MarioException e) {
-            return ui.sendMessage(e.getMessage());
+            storage.getMetrics().record(Command.Type.UNKNOWN, Metrics.Phase.PARSE, System.nanoTime() - start);
+            throw e;
         }
     }
 
+    /**
+     * Executes a command, compacting the journal afterwards if the command changed tasks. The time
+     * since {@code start} spent in storage is recorded as the command's persist phase, and the rest
+     * as its execute phase.
+     */
+    private void executeTimed(Command c, Appendable out, long start) throws MarioException {
+        Metrics metrics = storage.getMetrics();
+        metrics.takePersistNanos();
+        try {
+            c.executeInto(taskManager, storage, ui, out);
+            if (!c.isReadOnly()) {
+                compactStorageIfDue();
+            }
+        } finally {
+            long persistNanos = metrics.takePersistNanos();
+            metrics.record(c.getType(), Metrics.Phase.EXECUTE, System.nanoTime() - start - persistNanos);
+            if (persistNanos > 0) {
+                metrics.record(c.getType(), Metrics.Phase.PERSIST, persistNanos);
+            }
+        }
+    }
+
+    /**
+     * Executes a whole script of commands, one per line, and persists the result with a single
+     * save at the end instead of journaling every change as it happens. Long scripts are also saved
+     * every {@value #BATCH_CHECKPOINT_INTERVAL} commands, so a crash loses at most that much work.
+     * Blank lines are skipped, and a {@code bye} stops the script.
+     * <p>
+     * Other threads using this instance wait until the batch is done before changing tasks.
+     *
+     * @param lines the commands to run, in order.
+     * @return the response to each command that was run, in order.
+     */
+    public List<String> executeBatch(List<String> lines) {
+        getStartupReport();
+        List<String> responses = new ArrayList<>();
+        synchronized (storage) {
+            storage.beginBatch();
+            try {
+                for (String line : lines) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    StringBuilder sb = new StringBuilder();
+                    boolean isExit = respond(line, sb);
+                    responses.add(sb.toString());
+                    if (isExit) {
+                        break;
+                    }
+                    if (responses.size() % BATCH_CHECKPOINT_INTERVAL == 0) {
+                        storage.endBatch(taskManager.getTasks());
+                        storage.beginBatch();
+                    }
+                }
+            } catch (IOException e) {
+                responses.add(ui.sendMessage("Couldn't save tasks during the batch: " + e.getMessage()));
+            } finally {
+                try {
+                    storage.endBatch(taskManager.getTasks());
+                } catch (IOException e) {
+                    responses.add(ui.sendMessage("Couldn't save tasks after the batch: " + e.getMessage()));
+                }
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * Folds the storage journal back into the snapshot file once it has grown long enough.
+     * A failed compaction leaves the journal in place, so it is simply retried after the next command.
+     */
+    private void compactStorageIfDue() {
+        synchronized (storage) {
+            if (!storage.isCompactionDue()) {
+                return;
+            }
+            try {
+                storage.save(new ArrayList<>(taskManager.getTasks()));
+            } catch (IOException e) {
+                System.err.println("Could not compact storage journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Publishes this chatbot's latencies and counters over JMX, as described in
+     * {@link Metrics#registerMBean(String)}.
+     *
+     * @param name what this chatbot serves, such as {@code cli} or a server tenant.
+     */
+    public void registerMetrics(String name) {
+        storage.getMetrics().registerMBean(name);
+    }
+
     /**
      * Returns the type of the last successfully parsed command as a String.
      */
@@ -95,8 +308,26 @@ public class Mario {
         return this.commandType;
     }
 
-    public static void main(String[] args) {
+    /**
+     * Runs the command-line interface, or with {@code --batch FILE} runs the commands in
+     * {@code FILE} as one batch and prints each response. A batch prints its startup report,
+     * with the time taken to start, to standard error, so it stays apart from the responses.
+     *
+     * @param args the command-line arguments.
+     * @throws IOException if the batch file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
         Mario bot = new Mario();
+        if (args.length == 2 && args[0].equals("--batch")) {
+            List<String> lines = Files.readAllLines(Path.of(args[1]), StandardCharsets.UTF_8);
+            PrintStream out = new PrintStream(new BufferedOutputStream(System.out), false, StandardCharsets.UTF_8);
+            for (String response : bot.executeBatch(lines)) {
+                out.println(response);
+            }
+            out.flush();
+            System.err.println(bot.getStartupReport());
+            return;
+        }
         bot.run();
     }
 }
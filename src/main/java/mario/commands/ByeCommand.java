@@ -1,5 +1,10 @@
 package mario.commands;
 
+import java.io.IOException;
+
+import mario.exceptions.InvalidCommandException;
+import mario.exceptions.MarioException;
+import mario.util.CommandTokenizer;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
@@ -10,15 +15,36 @@ import mario.util.Ui;
  */
 public class ByeCommand implements Command {
     /**
-     * Executes the bye command, returning a goodbye message to the user.
+     * Parses the arguments of {@code bye}, which takes none.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws InvalidCommandException if anything follows the keyword.
+     */
+    public static Command parse(CommandTokenizer args) throws InvalidCommandException {
+        if (args.hasMore()) {
+            throw new InvalidCommandException(args.keyword());
+        }
+        return new ByeCommand();
+    }
+
+    /**
+     * Executes the bye command, making sure every change has been saved before
+     * returning a goodbye message to the user.
      *
      * @param tasks the task manager containing current tasks
      * @param storage the storage handler for saving tasks
      * @param ui the user interface handler for generating messages
      * @return a string containing the goodbye message
+     * @throws MarioException if pending changes could not be saved
      */
     @Override
-    public String execute(TaskManager tasks, Storage storage, Ui ui) {
+    public String execute(TaskManager tasks, Storage storage, Ui ui) throws MarioException {
+        try {
+            storage.flush();
+        } catch (IOException e) {
+            throw new MarioException("Couldn't save tasks before exiting.");
+        }
         return ui.sayGoodbye();
     }
 
@@ -28,6 +54,11 @@ public class ByeCommand implements Command {
         return Type.BYE;
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
 
     @Override
     public boolean isExit() {
@@ -1,5 +1,7 @@
 package mario.commands;
 
+import java.io.IOException;
+
 import mario.exceptions.MarioException;
 import mario.util.Storage;
 import mario.util.TaskManager;
@@ -21,6 +23,26 @@ public interface Command {
      */
     String execute(TaskManager tasks, Storage storage, Ui ui) throws MarioException;
 
+    /**
+     * Executes the command and writes its response to {@code out}.
+     * Commands with potentially large output override this to write it piece by piece
+     * as it is produced; by default the result of {@link #execute} is appended in one go.
+     *
+     * @param tasks the TaskManager managing the current list of tasks.
+     * @param storage the Storage handler for saving and loading tasks.
+     * @param ui the Ui component for interacting with the user.
+     * @param out where the response is written.
+     * @throws MarioException if an error occurs during command execution or writing the response.
+     */
+    default void executeInto(TaskManager tasks, Storage storage, Ui ui, Appendable out) throws MarioException {
+        String response = execute(tasks, storage, ui);
+        try {
+            out.append(response);
+        } catch (IOException e) {
+            throw new MarioException("Couldn't write the response: " + e.getMessage());
+        }
+    }
+
 
     /**
      * Enum representing the different types of commands supported by the application.
@@ -63,6 +85,10 @@ public interface Command {
          */
         VIEW,
         FIND,
+        /**
+         * Represents a command to show latency statistics.
+         */
+        STATS,
         UNKNOWN,
     }
 
@@ -83,5 +109,17 @@ public interface Command {
         return false;
     }
 
+    /**
+     * Returns true if this command only reads the task list.
+     * Read-only commands may run concurrently; other commands are run one at a time against
+     * a given storage, so that its journal records mutations in the order they were applied.
+     * By default, this method returns false.
+     *
+     * @return true if the command never changes the task list or storage
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
+
 
 }
@@ -0,0 +1,19 @@
+package mario.commands;
+
+import mario.exceptions.MarioException;
+import mario.util.CommandTokenizer;
+
+/**
+ * Builds a {@link Command} from the words the user typed after its keyword.
+ */
+@FunctionalInterface
+public interface CommandParser {
+    /**
+     * Parses the arguments of a command.
+     *
+     * @param args the input, positioned just after the command keyword.
+     * @return the command.
+     * @throws MarioException if the arguments are missing or malformed.
+     */
+    Command parse(CommandTokenizer args) throws MarioException;
+}
@@ -0,0 +1,124 @@
+package mario.commands;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import mario.util.CommandTokenizer;
+
+/**
+ * Maps command keywords to the parsers that build their commands.
+ * <p>
+ * Keywords are kept in a trie, so finding the parser for the keyword a line starts with takes
+ * one step per character of the keyword, however many commands are registered, and the keyword
+ * is read straight out of the line without being copied or lowercased. Keywords match ignoring
+ * case.
+ * <p>
+ * A registry is meant to be filled before it is used; lookups may run in parallel once it is
+ * shared, but registering while other threads look up commands is not safe.
+ * <p>
+ * The registry only maps keywords to parsers; it is not a plug-in point. The built-in keywords are
+ * listed in {@link #standard()} rather than declared by each command, and every command reports one
+ * of the fixed {@link Command.Type}s, which metrics are kept per. Adding a command therefore means
+ * adding its keywords to {@link #standard()} and a constant to {@link Command.Type}; a command
+ * registered from elsewhere can be parsed and run, but its metrics are counted under whichever
+ * existing type it reports.
+ */
+public class CommandRegistry {
+    private final Node root = new Node();
+
+    /**
+     * Trie node: the parser of the keyword ending here, if any, and the next characters of
+     * longer keywords.
+     */
+    private static class Node {
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private CommandParser parser;
+
+        Node child(char c) {
+            for (int i = 0; i < labels.length; i++) {
+                if (labels[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node addChild(char c) {
+            Node child = child(c);
+            if (child == null) {
+                labels = Arrays.copyOf(labels, labels.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                child = new Node();
+                labels[labels.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+
+    /**
+     * Returns a registry holding every built-in command. This is the one place the built-in
+     * keywords are listed.
+     */
+    public static CommandRegistry standard() {
+        return new CommandRegistry()
+                .register(TodoCommand::parse, "todo")
+                .register(DeadlineCommand::parse, "deadline")
+                .register(EventCommand::parse, "event")
+                .register(MarkCommand::parse, "mark")
+                .register(UnmarkCommand::parse, "unmark")
+                .register(DeleteCommand::parse, "delete")
+                .register(FindCommand::parse, "find")
+                .register(ViewCommand::parse, "view")
+                .register(ListCommand::parse, "list")
+                .register(StatsCommand::parse, "stats")
+                .register(ByeCommand::parse, "bye", "exit");
+    }
+
+    /**
+     * Registers a command under its keyword and any aliases.
+     *
+     * @param parser builds the command from its arguments.
+     * @param keyword the keyword the command is typed with.
+     * @param aliases other keywords for the same command.
+     * @return this registry.
+     * @throws IllegalArgumentException if a keyword is blank, contains a space or is already registered.
+     */
+    public CommandRegistry register(CommandParser parser, String keyword, String... aliases) {
+        add(keyword, parser);
+        for (String alias : aliases) {
+            add(alias, parser);
+        }
+        return this;
+    }
+
+    private void add(String keyword, CommandParser parser) {
+        if (keyword.isBlank() || keyword.indexOf(' ') >= 0) {
+            throw new IllegalArgumentException("Invalid command keyword: '" + keyword + "'");
+        }
+        Node node = root;
+        for (char c : keyword.toLowerCase(Locale.ROOT).toCharArray()) {
+            node = node.addChild(c);
+        }
+        if (node.parser != null) {
+            throw new IllegalArgumentException("Command keyword already registered: " + keyword);
+        }
+        node.parser = parser;
+    }
+
+    /**
+     * Returns the parser registered for the keyword the given input starts with.
+     *
+     * @param input the input, as read by a {@link CommandTokenizer}.
+     * @return the parser, or null if the keyword is not registered.
+     */
+    public CommandParser lookup(CommandTokenizer input) {
+        Node node = root;
+        int length = input.keywordLength();
+        for (int i = 0; i < length && node != null; i++) {
+            node = node.child(Character.toLowerCase(input.keywordCharAt(i)));
+        }
+        return node == null ? null : node.parser;
+    }
+}
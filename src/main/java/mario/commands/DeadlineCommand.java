@@ -4,12 +4,14 @@ import mario.exceptions.MarioException;
 import mario.exceptions.EmptyDeadlineTimeException;
 import mario.exceptions.EmptyTaskException;
 import mario.tasks.Deadline;
+import mario.util.CommandTokenizer;
+import mario.util.IsoDateParser;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
 import java.io.IOException;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
 
 
 public class DeadlineCommand implements Command {
@@ -25,6 +27,32 @@ public class DeadlineCommand implements Command {
         return this.byTime;
     }
 
+    /**
+     * Parses the arguments of {@code deadline}: {@code DESCRIPTION /by YYYY-MM-DD}.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws MarioException if the description or the date is missing, or the date is not an ISO date.
+     */
+    public static Command parse(CommandTokenizer args) throws MarioException {
+        if (!args.hasMore()) {
+            // no payload at all
+            throw new EmptyTaskException("deadline");
+        }
+        String desc = args.takeUntil(" /by ");
+        if (desc == null || !args.hasMore()) {
+            // missing /by time
+            throw new EmptyDeadlineTimeException();
+        }
+        LocalDate by;
+        try {
+            by = IsoDateParser.parseDate(args.takeRest()); // expect ISO yyyy-MM-dd
+        } catch (DateTimeParseException e) {
+            throw new MarioException("Use ISO date for /by, e.g. 2025-09-12");
+        }
+        return new DeadlineCommand(desc, by);
+    }
+
     @Override
     public Type getType() {
         return Type.DEADLINE;
@@ -40,7 +68,7 @@ public class DeadlineCommand implements Command {
         }
         Deadline deadline = tasks.addDeadline(description.trim(), byTime);
         try {
-            storage.save(new ArrayList<>(tasks.getTasks()));
+            storage.appendAdd(deadline);
         } catch (IOException e) {
             throw new MarioException("Couldn't save tasks after adding deadline.");
         }
@@ -1,11 +1,10 @@
 package mario.commands;
 
 import java.io.IOException;
-import java.util.ArrayList;
 
 import mario.exceptions.MarioException;
-import mario.exceptions.InvalidTaskIndexException;
 import mario.tasks.Task;
+import mario.util.CommandTokenizer;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
@@ -16,14 +15,34 @@ import mario.util.Ui;
  * updates the storage, and provides feedback via the UI.
  */
 public class DeleteCommand implements Command {
-    private final int index;
+    private final TaskTarget target;
 
 
     public DeleteCommand(int oneBasedIndex) {
-        this.index = oneBasedIndex - 1;
+        this(TaskTarget.ofIndex(oneBasedIndex));
+    }
+
+    /**
+     * Constructs a DeleteCommand for the given target task.
+     *
+     * @param target the position or id of the task to delete
+     */
+    public DeleteCommand(TaskTarget target) {
+        this.target = target;
     }
 
 
+    /**
+     * Parses the arguments of {@code delete}: a list number or a {@code #id}.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws MarioException if the task reference is missing or not a number.
+     */
+    public static Command parse(CommandTokenizer args) throws MarioException {
+        return new DeleteCommand(TaskTarget.parse(args));
+    }
+
     @Override
     public Type getType() {
         return Type.DELETE;
@@ -32,18 +51,13 @@ public class DeleteCommand implements Command {
 
     @Override
     public String execute(TaskManager tasks, Storage storage, Ui ui) throws MarioException {
-        var list = tasks.getTasks();
-        if (index < 0 || index >= list.size()) {
-            throw new InvalidTaskIndexException(
-                String.format("Index %d is out of bounds (valid range: 1 to %d)", index + 1, list.size()));
-        }
-        Task removed = list.get(index);
-        tasks.deleteTask(index);
+        Task t = target.resolve(tasks);
+        tasks.deleteById(t.getId());
         try {
-            storage.save(new ArrayList<>(tasks.getTasks()));
+            storage.appendDelete(t);
         } catch (IOException e) {
             throw new MarioException("Couldn't save tasks after deleting.");
         }
-        return ui.showDelete(removed, tasks);
+        return ui.showDelete(t, tasks);
     }
 }
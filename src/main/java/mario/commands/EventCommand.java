@@ -2,12 +2,14 @@ package mario.commands;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.format.DateTimeParseException;
 
 import mario.exceptions.MarioException;
 import mario.exceptions.EmptyEventTimeException;
 import mario.exceptions.EmptyTaskException;
 import mario.tasks.Events;
+import mario.util.CommandTokenizer;
+import mario.util.IsoDateParser;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
@@ -45,6 +47,39 @@ public class EventCommand implements Command {
         this.endTime = endTime;
     }
 
+    /**
+     * Parses the arguments of {@code event}: {@code DESCRIPTION /from START /to END}, with ISO
+     * date-times.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws MarioException if the description or a time is missing, or a time is malformed.
+     */
+    public static Command parse(CommandTokenizer args) throws MarioException {
+        if (!args.hasMore()) {
+            throw new EmptyTaskException("event");
+        }
+        String desc = args.takeUntil(" /from ");
+        String fromStr = desc == null ? null : args.takeUntil(" /to ");
+        if (fromStr == null) {
+            throw new EmptyEventTimeException();
+        }
+        String toStr = args.takeRest();
+        if (fromStr.isEmpty() || toStr.isEmpty()) {
+            throw new EmptyEventTimeException();
+        }
+
+        LocalDateTime from;
+        LocalDateTime to;
+        try {
+            from = IsoDateParser.parseDateTime(fromStr);
+            to = IsoDateParser.parseDateTime(toStr);
+        } catch (DateTimeParseException e) {
+            throw new MarioException("Use ISO date-time format for /from and /to, e.g. 2025-09-12T14:30");
+        }
+        return new EventCommand(desc, from, to);
+    }
+
     @Override
     public Type getType() {
         return Type.EVENT;
@@ -60,7 +95,7 @@ public class EventCommand implements Command {
         }
         Events event = tasks.addEvent(description.trim(), startTime, endTime);
         try {
-            storage.save(new ArrayList<>(tasks.getTasks()));
+            storage.appendAdd(event);
         } catch (IOException e) {
             throw new MarioException("Failed to save tasks: " + e.getMessage());
         }
@@ -2,8 +2,10 @@ package mario.commands;
 
 import java.util.List;
 
+import mario.exceptions.EmptyKeywordException;
 import mario.exceptions.MarioException;
 import mario.tasks.Task;
+import mario.util.CommandTokenizer;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
@@ -23,11 +25,30 @@ public class FindCommand implements Command {
         this.keyword = keyword;
     }
 
+    /**
+     * Parses the arguments of {@code find}: the keyword to search for.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws MarioException if no keyword is given.
+     */
+    public static Command parse(CommandTokenizer args) throws MarioException {
+        if (!args.hasMore()) {
+            throw new EmptyKeywordException();
+        }
+        return new FindCommand(args.takeRest());
+    }
+
     @Override
     public Type getType() {
         return Type.FIND;
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public String execute(TaskManager tasks, Storage storage, Ui ui) throws MarioException {
         List<Task> result = tasks.find(keyword);
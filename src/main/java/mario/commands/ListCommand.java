@@ -1,24 +1,132 @@
 package mario.commands;
 
+import java.io.IOException;
+import java.util.List;
+
 import mario.exceptions.MarioException;
+import mario.tasks.Task;
+import mario.util.CommandTokenizer;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
 
 /**
- * Represents the command to list all tasks.
- * When executed, it retrieves all tasks from the TaskManager
- * and returns a formatted string of these tasks using the Ui.
+ * Represents the command to list all tasks, or one page of them.
+ * When executed, it retrieves the tasks from the TaskManager
+ * and writes them out using the Ui, a chunk at a time.
  */
 public class ListCommand implements Command {
+    /** Number of tasks on a page when {@code list page N} does not give a limit. */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final String USAGE = "Use list, list page N, list --limit N or list page N --limit M, "
+            + "with N and M positive numbers. Even you can count that high.";
+
+    private final int page;
+    private final int pageSize;
+
+    /**
+     * Creates a command listing every task.
+     */
+    public ListCommand() {
+        this(1, 0);
+    }
 
+    /**
+     * Creates a command listing one page of tasks.
+     *
+     * @param page the page to list (1-based).
+     * @param pageSize the number of tasks on a page, or 0 to list every task.
+     */
+    public ListCommand(int page, int pageSize) {
+        this.page = page;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Parses the arguments of {@code list}: optionally {@code page N} and {@code --limit N}, in
+     * either order.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws MarioException if an argument is unknown or its number is missing or not positive.
+     */
+    public static Command parse(CommandTokenizer args) throws MarioException {
+        int page = 0;
+        int limit = 0;
+        while (args.hasMore()) {
+            String option = args.takeWord();
+            if (option.equalsIgnoreCase("page") && page == 0) {
+                page = parsePositive(args);
+            } else if (option.equalsIgnoreCase("--limit") && limit == 0) {
+                limit = parsePositive(args);
+            } else {
+                throw new MarioException(USAGE);
+            }
+        }
+        if (page == 0 && limit == 0) {
+            return new ListCommand();
+        }
+        return new ListCommand(Math.max(page, 1), limit == 0 ? DEFAULT_PAGE_SIZE : limit);
+    }
+
+    private static int parsePositive(CommandTokenizer args) throws MarioException {
+        try {
+            int value = args.hasMore() ? Integer.parseInt(args.takeWord()) : 0;
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below like any other bad number
+        }
+        throw new MarioException(USAGE);
+    }
 
     @Override
     public Type getType() {
         return Type.LIST;
     }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public String execute(TaskManager tasks, Storage storage, Ui ui) throws MarioException {
-        return ui.showTasks(tasks.getTasks());
+        StringBuilder sb = new StringBuilder();
+        executeInto(tasks, storage, ui, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Writes the list straight to {@code out} in chunks, copying only the tasks on the requested page.
+     */
+    @Override
+    public void executeInto(TaskManager tasks, Storage storage, Ui ui, Appendable out) throws MarioException {
+        try {
+            if (pageSize == 0) {
+                ui.showTasks(out, tasks.getTasks(), 0);
+                return;
+            }
+            int total = tasks.getSize();
+            int pageCount = Math.max(1, (int) ((total + (long) pageSize - 1) / pageSize));
+            if (page > pageCount) {
+                throw new MarioException(String.format("There %s only %d %s of %d tasks. Try a smaller number.",
+                        pageCount == 1 ? "is" : "are", pageCount, pageCount == 1 ? "page" : "pages", pageSize));
+            }
+            int from = (int) Math.min(Integer.MAX_VALUE, (page - 1L) * pageSize);
+            List<Task> shown = tasks.getTasks(from, pageSize);
+            ui.showTasks(out, shown, from);
+            String next = page < pageCount ? nextPageCommand() : null;
+            out.append(ui.showPageFooter(page, pageCount, from, shown.size(), total, next));
+        } catch (IOException e) {
+            throw new MarioException("Couldn't write the list: " + e.getMessage());
+        }
+    }
+
+    private String nextPageCommand() {
+        String command = "list page " + (page + 1);
+        return pageSize == DEFAULT_PAGE_SIZE ? command : command + " --limit " + pageSize;
     }
 }
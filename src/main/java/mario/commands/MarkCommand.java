@@ -1,11 +1,10 @@
 package mario.commands;
 
 import java.io.IOException;
-import java.util.ArrayList;
 
 import mario.exceptions.MarioException;
-import mario.exceptions.InvalidTaskIndexException;
 import mario.tasks.Task;
+import mario.util.CommandTokenizer;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
@@ -16,16 +15,35 @@ import mario.util.Ui;
  * saves the updated task list to storage, and returns a confirmation message.
  */
 public class MarkCommand implements Command {
-    private final int index;
+    private final TaskTarget target;
 
     /**
      * Constructs a MarkCommand with a one-based task index.
-     * The index is converted to zero-based for internal use.
      *
      * @param oneBasedIndex the one-based index of the task to mark as done
      */
     public MarkCommand(int oneBasedIndex) {
-        this.index = oneBasedIndex - 1;
+        this(TaskTarget.ofIndex(oneBasedIndex));
+    }
+
+    /**
+     * Constructs a MarkCommand for the given target task.
+     *
+     * @param target the position or id of the task to mark
+     */
+    public MarkCommand(TaskTarget target) {
+        this.target = target;
+    }
+
+    /**
+     * Parses the arguments of {@code mark}: a list number or a {@code #id}.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws MarioException if the task reference is missing or not a number.
+     */
+    public static Command parse(CommandTokenizer args) throws MarioException {
+        return new MarkCommand(TaskTarget.parse(args));
     }
 
     @Override
@@ -35,15 +53,10 @@ public class MarkCommand implements Command {
 
     @Override
     public String execute(TaskManager tasks, Storage storage, Ui ui) throws MarioException {
-        var list = tasks.getTasks();
-        if (index < 0 || index >= list.size()) {
-            throw new InvalidTaskIndexException(
-                String.format("Index %d is out of bounds (valid range: 1 to %d)", index + 1, list.size()));
-        }
-        Task t = list.get(index);
-        tasks.markDone(index);
+        Task t = target.resolve(tasks);
+        tasks.markDoneById(t.getId());
         try {
-            storage.save(new ArrayList<>(tasks.getTasks()));
+            storage.appendMark(t);
         } catch (IOException e) {
             throw new MarioException("Couldn't save tasks after marking.");
         }
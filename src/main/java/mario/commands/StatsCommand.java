@@ -0,0 +1,42 @@
+package mario.commands;
+
+import mario.exceptions.InvalidCommandException;
+import mario.util.CommandTokenizer;
+import mario.util.Storage;
+import mario.util.TaskManager;
+import mario.util.Ui;
+
+/**
+ * Represents the command to show how long each kind of command has taken to parse, execute and
+ * persist, along with the storage counters kept in its {@link mario.util.Metrics}.
+ */
+public class StatsCommand implements Command {
+    /**
+     * Parses the arguments of {@code stats}, which takes none.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws InvalidCommandException if anything follows the keyword.
+     */
+    public static Command parse(CommandTokenizer args) throws InvalidCommandException {
+        if (args.hasMore()) {
+            throw new InvalidCommandException(args.keyword());
+        }
+        return new StatsCommand();
+    }
+
+    @Override
+    public String execute(TaskManager tasks, Storage storage, Ui ui) {
+        return ui.showStats(storage.getMetrics().report());
+    }
+
+    @Override
+    public Type getType() {
+        return Type.STATS;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
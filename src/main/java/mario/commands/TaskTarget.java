@@ -0,0 +1,77 @@
+package mario.commands;
+
+import mario.exceptions.InvalidTaskIndexException;
+import mario.tasks.Task;
+import mario.util.CommandTokenizer;
+import mario.util.TaskManager;
+
+/**
+ * Identifies the task a command acts on, either by its one-based position in the list
+ * ({@code mark 2}) or by its stable id ({@code mark #17}).
+ *
+ * @param number the one-based position or the id, depending on {@code isId}.
+ * @param isId whether {@code number} is a task id rather than a position.
+ */
+public record TaskTarget(int number, boolean isId) {
+    /**
+     * Returns a target for the task at the given one-based position.
+     *
+     * @param oneBasedIndex the position of the task as shown by {@code list}.
+     * @return the target.
+     */
+    public static TaskTarget ofIndex(int oneBasedIndex) {
+        return new TaskTarget(oneBasedIndex, false);
+    }
+
+    /**
+     * Returns a target for the task with the given id.
+     *
+     * @param id the stable id of the task.
+     * @return the target.
+     */
+    public static TaskTarget ofId(int id) {
+        return new TaskTarget(id, true);
+    }
+
+    /**
+     * Parses a task reference: a list position such as {@code 2}, or a task id such as {@code #17}.
+     *
+     * @param args the input, positioned at the reference.
+     * @return the target.
+     * @throws InvalidTaskIndexException if the reference is missing or not a number.
+     */
+    public static TaskTarget parse(CommandTokenizer args) throws InvalidTaskIndexException {
+        if (!args.hasMore()) {
+            throw new InvalidTaskIndexException("Give me a task number, e.g., 2");
+        }
+        boolean isId = args.skip('#');
+        try {
+            int value = args.takeInt();
+            return isId ? ofId(value) : ofIndex(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidTaskIndexException("That’s not a number. Try something like: mark 2 or mark #17");
+        }
+    }
+
+    /**
+     * Looks up the targeted task.
+     *
+     * @param tasks the task list to look in.
+     * @return the targeted task.
+     * @throws InvalidTaskIndexException if no task matches the target.
+     */
+    public Task resolve(TaskManager tasks) throws InvalidTaskIndexException {
+        if (isId) {
+            Task task = tasks.getTaskById(number);
+            if (task == null) {
+                throw new InvalidTaskIndexException(String.format("There is no task with id #%d", number));
+            }
+            return task;
+        }
+        if (number < 1 || number > tasks.getSize()) {
+            throw new InvalidTaskIndexException(
+                String.format("Index %d is out of bounds (valid range: 1 to %d)", number, tasks.getSize()));
+        }
+        return tasks.getTask(number - 1);
+    }
+}
@@ -1,11 +1,11 @@
 package mario.commands;
 
 import java.io.IOException;
-import java.util.ArrayList;
 
 import mario.exceptions.MarioException;
 import mario.exceptions.EmptyTaskException;
 import mario.tasks.ToDo;
+import mario.util.CommandTokenizer;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
@@ -28,6 +28,17 @@ public class TodoCommand implements Command {
         this.description = description;
     }
 
+    /**
+     * Parses the arguments of {@code todo}: the description, which may be empty.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     */
+    public static Command parse(CommandTokenizer args) {
+        // allow empty to trigger proper EmptyTaskException in execute
+        return new TodoCommand(args.takeRest());
+    }
+
     @Override
     public Type getType() {
         return Type.TODO;
@@ -40,7 +51,7 @@ public class TodoCommand implements Command {
         }
         ToDo todo = tasks.addToDo(description.trim());
         try {
-            storage.save(new ArrayList<>(tasks.getTasks()));
+            storage.appendAdd(todo);
         } catch (IOException e) {
             throw new MarioException("Couldn't save tasks after adding todo.");
         }
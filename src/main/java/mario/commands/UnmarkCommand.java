@@ -1,11 +1,10 @@
 package mario.commands;
 
 import java.io.IOException;
-import java.util.ArrayList;
 
 import mario.exceptions.MarioException;
-import mario.exceptions.InvalidTaskIndexException;
 import mario.tasks.Task;
+import mario.util.CommandTokenizer;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
@@ -16,16 +15,35 @@ import mario.util.Ui;
  * This command updates the task's status to undone and saves the changes.
  */
 public class UnmarkCommand implements Command {
-    private final int index;
+    private final TaskTarget target;
 
     /**
      * Constructs an UnmarkCommand with the given one-based task index.
-     * The index is converted to zero-based for internal use.
      *
      * @param oneBasedIndex The one-based index of the task to unmark.
      */
     public UnmarkCommand(int oneBasedIndex) {
-        this.index = oneBasedIndex - 1;
+        this(TaskTarget.ofIndex(oneBasedIndex));
+    }
+
+    /**
+     * Constructs a UnmarkCommand for the given target task.
+     *
+     * @param target the position or id of the task to unmark
+     */
+    public UnmarkCommand(TaskTarget target) {
+        this.target = target;
+    }
+
+    /**
+     * Parses the arguments of {@code unmark}: a list number or a {@code #id}.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws MarioException if the task reference is missing or not a number.
+     */
+    public static Command parse(CommandTokenizer args) throws MarioException {
+        return new UnmarkCommand(TaskTarget.parse(args));
     }
 
     @Override
@@ -35,15 +53,10 @@ public class UnmarkCommand implements Command {
 
     @Override
     public String execute(TaskManager tasks, Storage storage, Ui ui) throws MarioException {
-        var list = tasks.getTasks();
-        if (index < 0 || index >= list.size()) {
-            throw new InvalidTaskIndexException(
-                String.format("Index %d is out of bounds (valid range: 1 to %d)", index + 1, list.size()));
-        }
-        Task t = list.get(index);
-        tasks.markUndone(index);
+        Task t = target.resolve(tasks);
+        tasks.markUndoneById(t.getId());
         try {
-            storage.save(new ArrayList<>(tasks.getTasks()));
+            storage.appendUnmark(t);
         } catch (IOException e) {
             throw new MarioException("Couldn't save tasks after unmarking.");
         }
@@ -1,31 +1,102 @@
 package mario.commands;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 import mario.exceptions.MarioException;
 import mario.tasks.TimedTask;
+import mario.util.CommandTokenizer;
+import mario.util.IsoDateParser;
 import mario.util.Storage;
 import mario.util.TaskManager;
 import mario.util.Ui;
 
 /**
- * Represents a command to view schedule at a particular date (default today)
+ * Represents a command to view schedule at a particular date (default today),
+ * or the agenda for every day in a range of dates.
  */
 public class ViewCommand implements Command {
     private final LocalDate date;
+    private final LocalDate endDate;
 
     public ViewCommand(LocalDate date) {
+        this(date, date);
+    }
+
+    /**
+     * Constructs a ViewCommand showing every day from {@code date} to {@code endDate}, inclusive.
+     *
+     * @param date the first day of the agenda.
+     * @param endDate the last day of the agenda; not before {@code date}.
+     */
+    public ViewCommand(LocalDate date, LocalDate endDate) {
+        assert !endDate.isBefore(date) : "A schedule range must not end before it starts";
         this.date = date;
+        this.endDate = endDate;
+    }
+
+    /**
+     * Parses the arguments of {@code view}: nothing for today, a date, or a start and an end date.
+     *
+     * @param args the input after the keyword.
+     * @return the command.
+     * @throws MarioException if a date is malformed or the range ends before it starts.
+     */
+    public static Command parse(CommandTokenizer args) throws MarioException {
+        if (!args.hasMore()) {
+            return new ViewCommand(LocalDate.now());
+        }
+        LocalDate date;
+        LocalDate endDate;
+        try {
+            date = IsoDateParser.parseDate(args.takeWord());
+            endDate = args.hasMore() ? IsoDateParser.parseDate(args.takeRest()) : date;
+        } catch (DateTimeParseException e) {
+            throw new MarioException("Use ISO dates for view, e.g. view 2025-09-20 or view 2025-09-01 2025-09-30");
+        }
+        if (endDate.isBefore(date)) {
+            throw new MarioException("The end of a view range can't be before its start.");
+        }
+        return new ViewCommand(date, endDate);
     }
+
     @Override
     public Type getType() {
         return Type.VIEW;
     }
 
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
     @Override
     public String execute(TaskManager tasks, Storage storage, Ui ui) throws MarioException {
-        List<TimedTask> schedule = tasks.getScheduleFor(date);
-        return ui.showSchedule(schedule, date);
+        if (date.equals(endDate)) {
+            List<TimedTask> schedule = tasks.getScheduleFor(date);
+            return ui.showSchedule(schedule, date);
+        }
+        StringBuilder sb = new StringBuilder();
+        executeInto(tasks, storage, ui, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Writes the schedule of a range straight to {@code out}, one day at a time, so a long
+     * agenda is never held in memory as a whole.
+     */
+    @Override
+    public void executeInto(TaskManager tasks, Storage storage, Ui ui, Appendable out) throws MarioException {
+        if (date.equals(endDate)) {
+            Command.super.executeInto(tasks, storage, ui, out);
+            return;
+        }
+        try {
+            ui.showScheduleRange(out, date, endDate, tasks);
+        } catch (IOException e) {
+            throw new MarioException("Couldn't write the schedule: " + e.getMessage());
+        }
     }
 }
@@ -0,0 +1,257 @@
+package mario.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import mario.Mario;
+import mario.util.Storage;
+import mario.util.TaskManager;
+
+/**
+ * Headless server that lets many clients talk to Mario over TCP from a single process.
+ * <p>
+ * The protocol is line based and UTF-8 encoded. The first line a client sends names its
+ * tenant; tenant names are case-insensitive, and every connection naming the same tenant shares
+ * one task list, stored in {@code data/tenants/<tenant>.txt} with the name in lowercase. Lines
+ * longer than the server accepts end the session. Each following line is a command in exactly the form the
+ * command-line interface accepts. The server answers the tenant line with the startup
+ * report and every command with its response, each reply ending with a line holding a single
+ * {@code .}; reply lines that start with a dot are sent with an extra leading dot. A
+ * {@code bye} ends the session after its reply.
+ * <p>
+ * Each connection is served on its own thread, which is a virtual thread when the runtime
+ * supports them, so idle sessions cost little.
+ */
+public class MarioServer implements Closeable {
+    /** Port the server listens on unless told otherwise. */
+    public static final int DEFAULT_PORT = 4040;
+
+    private static final Pattern TENANT_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String TENANT_DIRECTORY = "tenants/";
+    /** Longest tenant line read, leaving room for spaces around the name. */
+    private static final int MAX_TENANT_LINE_LENGTH = 256;
+    /** Longest command line read; no command comes close. */
+    private static final int MAX_COMMAND_LENGTH = 64 * 1024;
+    private static final String END_OF_REPLY = ".";
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = newSessionExecutor();
+    private final Map<String, Mario> tenants = new ConcurrentHashMap<>();
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final Function<String, Mario> tenantFactory;
+
+    /**
+     * Creates a server listening on the given port of the loopback interface, keeping each
+     * tenant's tasks under {@code data/tenants/} in storage configured by
+     * {@link Storage#fromSystemProperties(String)} and publishing each tenant's metrics over JMX
+     * under the tenant's name.
+     *
+     * @param port the TCP port, or 0 to pick a free one.
+     * @throws IOException if the port cannot be bound.
+     */
+    public MarioServer(int port) throws IOException {
+        this(new ServerSocket(port, 0, InetAddress.getLoopbackAddress()), tenant -> {
+            Mario mario = new Mario(new TaskManager(Mario.DEFAULT_CAPACITY),
+                    Storage.fromSystemProperties(TENANT_DIRECTORY + tenant + ".txt"));
+            mario.registerMetrics(tenant);
+            return mario;
+        });
+    }
+
+    /**
+     * Creates a server that accepts connections on the given socket and builds the chatbot for
+     * each tenant with the given factory the first time the tenant connects.
+     *
+     * @param serverSocket a bound server socket.
+     * @param tenantFactory creates the chatbot serving a tenant, given its name in lowercase.
+     */
+    public MarioServer(ServerSocket serverSocket, Function<String, Mario> tenantFactory) {
+        this.serverSocket = serverSocket;
+        this.tenantFactory = tenantFactory;
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed, serving each on its own thread.
+     *
+     * @throws IOException if accepting a connection fails for a reason other than the server closing.
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            openSockets.add(socket);
+            sessions.execute(() -> handle(socket));
+        }
+    }
+
+    /**
+     * Stops accepting connections, disconnects every client and waits briefly for sessions to
+     * finish the command they are running.
+     *
+     * @throws IOException if the server socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+        sessions.shutdownNow();
+        try {
+            sessions.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer out = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            String tenant = readLine(in, MAX_TENANT_LINE_LENGTH);
+            if (tenant == null) {
+                return;
+            }
+            tenant = tenant.trim();
+            if (!TENANT_NAME.matcher(tenant).matches()) {
+                reply(out, "The first line must name your tenant, using letters, digits, '-' or '_'.");
+                return;
+            }
+            Mario mario = tenants.computeIfAbsent(tenant.toLowerCase(Locale.ROOT), tenantFactory);
+            reply(out, mario.getStartupReport());
+
+            String input;
+            while ((input = readLine(in, MAX_COMMAND_LENGTH)) != null) {
+                StringBuilder response = new StringBuilder();
+                boolean isExit = mario.respond(input, response);
+                reply(out, response);
+                if (isExit) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            // The client went away or sent a line too long to read; nothing is left to clean up
+            // beyond closing the socket
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    /**
+     * Reads a line like {@link BufferedReader#readLine()}, but fails once it runs past the given
+     * length instead of buffering whatever the client sends.
+     *
+     * @return the line without its terminator, or null at the end of the stream.
+     * @throws IOException if reading fails or the line is longer than {@code maxLength}.
+     */
+    private static String readLine(BufferedReader in, int maxLength) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) >= 0 && c != '\n') {
+            // Buffering one character past the limit leaves room for a '\r' before the '\n'
+            if (line.length() > maxLength) {
+                throw new IOException("Line longer than " + maxLength + " characters");
+            }
+            line.append((char) c);
+        }
+        if (c < 0 && line.length() == 0) {
+            return null;
+        }
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(--length);
+        }
+        if (length > maxLength) {
+            throw new IOException("Line longer than " + maxLength + " characters");
+        }
+        return line.toString();
+    }
+
+    /**
+     * Writes one reply, dot-stuffing its lines, followed by the end-of-reply line.
+     */
+    private static void reply(Writer out, CharSequence response) throws IOException {
+        int start = 0;
+        int length = response.length();
+        while (start < length) {
+            int end = start;
+            while (end < length && response.charAt(end) != '\n') {
+                end++;
+            }
+            if (response.charAt(start) == '.') {
+                out.write('.');
+            }
+            int lineEnd = end > start && response.charAt(end - 1) == '\r' ? end - 1 : end;
+            out.append(response, start, lineEnd).append('\n');
+            start = end + 1;
+        }
+        out.write(END_OF_REPLY);
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Returns an executor starting a virtual thread per session when the runtime has them
+     * (Java 21 and later), and a cached pool of platform threads otherwise.
+     */
+    static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "mario-session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Runs the server until the process is stopped.
+     *
+     * @param args an optional port number; {@value #DEFAULT_PORT} if absent.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        try (MarioServer server = new MarioServer(port)) {
+            System.out.println("Mario is listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+}
@@ -27,13 +27,16 @@ public class Deadline extends TimedTask {
         this.deadline = deadline;
     }
 
+    public LocalDate getDeadline() {
+        return deadline;
+    }
+
     @Override
-    protected String formatWith(DateTimeFormatter formatter) {
-        return String.format("[%s][%s] %s (by: %s)",
-                typeTag(),
-                getStatusIcon(),
-                getDescription(),
-                deadline.format(formatter));
+    protected void appendWith(StringBuilder sb, DateTimeFormatter formatter) {
+        appendSummary(sb);
+        sb.append(" (by: ");
+        formatter.formatTo(deadline, sb);
+        sb.append(')');
     }
 
     @Override
@@ -42,8 +45,8 @@ public class Deadline extends TimedTask {
     }
 
     @Override
-    public String toString() {
-        return formatWith(DATE_ONLY_FORMATTER);
+    public void appendTo(StringBuilder sb) {
+        appendWith(sb, DATE_ONLY_FORMATTER);
     }
 
     @Override
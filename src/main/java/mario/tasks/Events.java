@@ -37,9 +37,13 @@ public class Events extends TimedTask {
     }
 
     @Override
-    protected String formatWith(DateTimeFormatter formatter) {
-        return String.format("[%s][%s] %s (from: %s, to: %s)", typeTag(), getStatusIcon(),
-                getDescription(), start.format(formatter), end.format(formatter));
+    protected void appendWith(StringBuilder sb, DateTimeFormatter formatter) {
+        appendSummary(sb);
+        sb.append(" (from: ");
+        formatter.formatTo(start, sb);
+        sb.append(", to: ");
+        formatter.formatTo(end, sb);
+        sb.append(')');
     }
 
     @Override
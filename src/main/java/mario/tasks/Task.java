@@ -7,10 +7,17 @@ package mario.tasks;
  * including a description, completion status, and formatted string output.
  * Concrete subclasses such as {@link ToDo}, {@link Deadline}, and {@link Events}
  * provide specific implementations of {@link #typeTag()}.
+ * <p>
+ * Each task also carries a stable id, assigned by {@link mario.util.TaskManager} and persisted
+ * with it, that keeps identifying the task while other tasks are added and deleted.
  */
 public abstract class Task {
+    /** Id of a task that has not been assigned one yet. */
+    public static final int NO_ID = 0;
+
     private final String description;
-    private boolean isDone;
+    private volatile boolean isDone;
+    private int id = NO_ID;
 
     /**
      * Creates a new task with the given description.
@@ -23,6 +30,24 @@ public abstract class Task {
         this.isDone = false;
     }
 
+    /**
+     * Returns the stable id of this task, or {@link #NO_ID} if it has none yet.
+     *
+     * @return the task id.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Sets the stable id of this task; used when the task is added to a {@link mario.util.TaskManager}.
+     *
+     * @param id the task id.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
     /**
      * Marks this task as completed by setting its status to done.
      */
@@ -46,6 +71,15 @@ public abstract class Task {
         return this.description;
     }
 
+    /**
+     * Returns whether this task has been marked as completed.
+     *
+     * @return true if the task is done.
+     */
+    public boolean isDone() {
+        return this.isDone;
+    }
+
     /**
      * Returns a status icon representing whether the task is done.
      * "X" if completed, otherwise a blank space.
@@ -64,6 +98,25 @@ public abstract class Task {
      */
     protected abstract String typeTag();
 
+    /**
+     * Appends this task's type tag, status icon and description, as in {@code [T][X] read book}.
+     *
+     * @param sb where the text is appended.
+     */
+    protected final void appendSummary(StringBuilder sb) {
+        sb.append('[').append(typeTag()).append("][").append(getStatusIcon()).append("] ").append(getDescription());
+    }
+
+    /**
+     * Appends the same text as {@link #toString()}, without building it as a separate string
+     * first. Used when many tasks are rendered into one buffer.
+     *
+     * @param sb where the text is appended.
+     */
+    public void appendTo(StringBuilder sb) {
+        appendSummary(sb);
+    }
+
     /**
      * Returns a formatted string representation of this task,
      * including its type tag, status icon, and description.
@@ -72,6 +125,8 @@ public abstract class Task {
      */
     @Override
     public String toString() {
-        return String.format("[%s][%s] %s", typeTag(), getStatusIcon(), getDescription());
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
     }
 }
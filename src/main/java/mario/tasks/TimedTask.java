@@ -37,13 +37,25 @@ public abstract class TimedTask extends Task {
         super(description);
     }
 
+    /**
+     * Appends this task with its time-related fields formatted by the specified formatter.
+     *
+     * @param sb Where the text is appended.
+     * @param formatter The DateTimeFormatter to use for formatting.
+     */
+    protected abstract void appendWith(StringBuilder sb, DateTimeFormatter formatter);
+
     /**
      * Formats the time-related fields of this task using the specified formatter.
      *
      * @param formatter The DateTimeFormatter to use for formatting.
      * @return The formatted string representation of this task.
      */
-    protected abstract String formatWith(DateTimeFormatter formatter);
+    protected String formatWith(DateTimeFormatter formatter) {
+        StringBuilder sb = new StringBuilder();
+        appendWith(sb, formatter);
+        return sb.toString();
+    }
 
     /**
      * Returns a string representation of this deadline suitable for storage.
@@ -63,7 +75,7 @@ public abstract class TimedTask extends Task {
     public abstract LocalDateTime getScheduleTime(LocalDate date);
 
     @Override
-    public String toString() {
-        return formatWith(DEFAULT_FORMATTER);
+    public void appendTo(StringBuilder sb) {
+        appendWith(sb, DEFAULT_FORMATTER);
     }
 }
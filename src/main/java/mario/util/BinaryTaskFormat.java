@@ -0,0 +1,215 @@
+package mario.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import mario.tasks.Deadline;
+import mario.tasks.Events;
+import mario.tasks.Task;
+import mario.tasks.ToDo;
+
+/**
+ * Encodes and decodes the compact binary task file format.
+ * <p>
+ * The file starts with a header of a 4-byte magic number, a 2-byte format version, 2 reserved
+ * bytes and the 4-byte task count. Each task record is a type byte ({@code T}, {@code D} or
+ * {@code E}), a flags byte (bit 0 set when done), the task id and a length-prefixed UTF-8
+ * description. Deadlines follow with their date as an epoch day; events with their start and
+ * end as UTC epoch seconds plus nanoseconds. Loading therefore never goes through the display format.
+ * <p>
+ * The records are followed by a trailer holding the 8-byte generation of the save that wrote
+ * the file and a CRC32C of everything before it, so damage is detected on load.
+ */
+public class BinaryTaskFormat {
+    /** "MRIO" in ASCII. */
+    public static final int MAGIC = 0x4D52494F;
+    /** Format version written after the magic number; files of any other version are rejected. */
+    public static final short VERSION = 1;
+
+    private static final byte TODO = 'T';
+    private static final byte DEADLINE = 'D';
+    private static final byte EVENT = 'E';
+    private static final int DONE_FLAG = 1;
+    /** Longer descriptions must fit in the remaining input, so damage cannot force a huge allocation. */
+    private static final int MAX_UNCHECKED_LENGTH = 1 << 16;
+
+    private BinaryTaskFormat() {
+    }
+
+    /**
+     * The content of a binary task file.
+     *
+     * @param tasks the decoded tasks.
+     * @param generation the generation recorded in the trailer.
+     * @param isIntact false if the trailer's checksum does not match the content.
+     */
+    public record Contents(ArrayList<Task> tasks, long generation, boolean isIntact) {
+    }
+
+    /**
+     * Serializes the given tasks, header included, as generation 0.
+     *
+     * @param tasks the tasks to encode; order is preserved.
+     * @return the encoded file content.
+     */
+    public static byte[] encode(List<Task> tasks) {
+        return encode(tasks, 0);
+    }
+
+    /**
+     * Serializes the given tasks with a header and a checksummed trailer.
+     *
+     * @param tasks the tasks to encode; order is preserved.
+     * @param generation the generation of the save, stored in the trailer.
+     * @return the encoded file content.
+     */
+    public static byte[] encode(List<Task> tasks, long generation) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32 + tasks.size() * 32);
+        CheckedOutputStream checked = new CheckedOutputStream(bytes, new CRC32C());
+        try (DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeShort(0);
+            out.writeInt(tasks.size());
+            for (Task t : tasks) {
+                writeTask(out, t);
+            }
+            out.writeLong(generation);
+            out.flush();
+            out.writeInt((int) checked.getChecksum().getValue());
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory streams do not throw", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a whole binary task file, rejecting it if its checksum does not match.
+     *
+     * @param input the stream positioned at the start of the header.
+     * @return the decoded tasks.
+     * @throws IOException if the header is not recognised, the content is truncated or damaged.
+     */
+    public static ArrayList<Task> decode(InputStream input) throws IOException {
+        Contents contents = read(input);
+        if (!contents.isIntact()) {
+            throw new IOException("Binary task file is damaged: checksum mismatch");
+        }
+        return contents.tasks();
+    }
+
+    /**
+     * Reads a whole binary task file, reporting rather than rejecting a checksum mismatch.
+     *
+     * @param input the stream positioned at the start of the header.
+     * @return the decoded tasks with the file's generation and integrity.
+     * @throws IOException if the header is not recognised or the content is truncated.
+     */
+    public static Contents read(InputStream input) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(input, new CRC32C());
+        DataInputStream in = new DataInputStream(checked);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a Mario binary task file");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary task file version " + version);
+        }
+        in.readShort();
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Binary task file is damaged: negative task count");
+        }
+        ArrayList<Task> tasks = new ArrayList<>(Math.min(count, 1 << 16));
+        for (int i = 0; i < count; i++) {
+            tasks.add(readTask(in));
+        }
+        long generation = in.readLong();
+        int expected = (int) checked.getChecksum().getValue();
+        return new Contents(tasks, generation, in.readInt() == expected);
+    }
+
+    private static void writeTask(DataOutputStream out, Task t) throws IOException {
+        byte[] description = t.getDescription().getBytes(StandardCharsets.UTF_8);
+        if (t instanceof Deadline deadline) {
+            out.writeByte(DEADLINE);
+            writeHeader(out, t, description);
+            out.writeLong(deadline.getDeadline().toEpochDay());
+        } else if (t instanceof Events event) {
+            out.writeByte(EVENT);
+            writeHeader(out, t, description);
+            writeDateTime(out, event.getStart());
+            writeDateTime(out, event.getEnd());
+        } else {
+            out.writeByte(TODO);
+            writeHeader(out, t, description);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, Task t, byte[] description) throws IOException {
+        out.writeByte(t.isDone() ? DONE_FLAG : 0);
+        out.writeInt(t.getId());
+        out.writeInt(description.length);
+        out.write(description);
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static Task readTask(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        int flags = in.readByte();
+        int id = in.readInt();
+        int length = in.readInt();
+        if (length < 0 || length > in.available() && length > MAX_UNCHECKED_LENGTH) {
+            throw new IOException("Binary task file is damaged: bad description length " + length);
+        }
+        byte[] description = new byte[length];
+        in.readFully(description);
+        String desc = new String(description, StandardCharsets.UTF_8);
+
+        Task task;
+        try {
+            switch (type) {
+            case TODO:
+                task = new ToDo(desc);
+                break;
+            case DEADLINE:
+                task = new Deadline(desc, LocalDate.ofEpochDay(in.readLong()));
+                break;
+            case EVENT:
+                task = new Events(desc, readDateTime(in), readDateTime(in));
+                break;
+            default:
+                throw new IOException("Unknown task type in binary task file: " + type);
+            }
+        } catch (DateTimeException e) {
+            throw new IOException("Binary task file is damaged: " + e.getMessage(), e);
+        }
+        if ((flags & DONE_FLAG) != 0) {
+            task.markDone();
+        }
+        task.setId(id);
+        return task;
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        long seconds = in.readLong();
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+}
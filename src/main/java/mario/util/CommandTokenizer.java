@@ -0,0 +1,157 @@
+package mario.util;
+
+/**
+ * Cursor over one line of user input, used by {@link Parser} and the parsers of individual
+ * commands to take a command apart in a single pass. The command keyword is looked up where it
+ * stands in the line, and flags such as {@code /by} are found by scanning ahead of the cursor,
+ * so nothing is copied except the pieces the command keeps, such as its description.
+ * <p>
+ * Whitespace is what {@link String#trim()} strips, so every piece comes out exactly as trimming
+ * and splitting the line would have produced it.
+ */
+public class CommandTokenizer {
+    private final String line;
+    private final int end;
+    private final int keywordStart;
+    private final int keywordEnd;
+    private int pos;
+
+    /**
+     * Creates a cursor over the given line, positioned after its command keyword: everything
+     * up to the first space, ignoring leading and trailing whitespace.
+     *
+     * @param line the user input.
+     */
+    public CommandTokenizer(String line) {
+        this.line = line;
+        int last = line.length();
+        while (last > 0 && line.charAt(last - 1) <= ' ') {
+            last--;
+        }
+        this.end = last;
+        this.keywordStart = skipSpaces(0);
+        int space = line.indexOf(' ', keywordStart);
+        this.keywordEnd = space < 0 || space > end ? end : space;
+        this.pos = skipSpaces(keywordEnd);
+    }
+
+    /**
+     * Returns true if the line is blank.
+     */
+    public boolean isBlank() {
+        return keywordStart == end;
+    }
+
+    /**
+     * Returns the number of characters in the command keyword.
+     */
+    public int keywordLength() {
+        return keywordEnd - keywordStart;
+    }
+
+    /**
+     * Returns a character of the command keyword, as typed.
+     *
+     * @param index the position within the keyword.
+     */
+    public char keywordCharAt(int index) {
+        return line.charAt(keywordStart + index);
+    }
+
+    /**
+     * Returns the command keyword in lower case.
+     */
+    public String keyword() {
+        return line.substring(keywordStart, keywordEnd).toLowerCase();
+    }
+
+    /**
+     * Returns true if anything but whitespace is left after the cursor.
+     */
+    public boolean hasMore() {
+        return pos < end;
+    }
+
+    /**
+     * Moves past the given character if it is the next one.
+     *
+     * @param c the character.
+     * @return true if the cursor moved.
+     */
+    public boolean skip(char c) {
+        if (pos < end && line.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the trimmed text between the cursor and the next occurrence of {@code flag}, and
+     * moves past the flag and the whitespace after it.
+     *
+     * @param flag the separator to look for, such as {@code " /by "}.
+     * @return the text before the flag, or null if the flag does not occur, leaving the cursor where it was.
+     */
+    public String takeUntil(String flag) {
+        int at = line.indexOf(flag, pos);
+        if (at < 0 || at + flag.length() > end) {
+            return null;
+        }
+        int textEnd = at;
+        while (textEnd > pos && line.charAt(textEnd - 1) <= ' ') {
+            textEnd--;
+        }
+        String text = line.substring(pos, textEnd);
+        pos = skipSpaces(at + flag.length());
+        return text;
+    }
+
+    /**
+     * Returns the text up to the next whitespace character, as {@code \s} in a regular expression
+     * matches it, and moves past the whitespace after it.
+     */
+    public String takeWord() {
+        int wordEnd = pos;
+        while (wordEnd < end && !isRegexSpace(line.charAt(wordEnd))) {
+            wordEnd++;
+        }
+        String word = line.substring(pos, wordEnd);
+        pos = wordEnd;
+        while (pos < end && isRegexSpace(line.charAt(pos))) {
+            pos++;
+        }
+        return word;
+    }
+
+    /**
+     * Returns everything left after the cursor, without trailing whitespace, and moves to the end.
+     */
+    public String takeRest() {
+        String rest = line.substring(pos, end);
+        pos = end;
+        return rest;
+    }
+
+    /**
+     * Parses everything left after the cursor as a decimal integer and moves to the end.
+     *
+     * @throws NumberFormatException if the rest is not an integer.
+     */
+    public int takeInt() {
+        int value = Integer.parseInt(line, pos, end, 10);
+        pos = end;
+        return value;
+    }
+
+    private int skipSpaces(int from) {
+        while (from < end && line.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
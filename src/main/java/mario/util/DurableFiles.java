@@ -0,0 +1,100 @@
+package mario.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * File helpers for writes that must survive a crash.
+ */
+class DurableFiles {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private DurableFiles() {
+    }
+
+    /**
+     * Replaces {@code target} with {@code content} so that a crash leaves either the old or the
+     * new file, never a partial one: the content goes to a temporary file that is forced to disk
+     * and then renamed over the target, and the rename itself is made durable.
+     *
+     * @param target the file to replace.
+     * @param content the new content.
+     * @throws IOException if an I/O error occurs; the target is then left untouched.
+     */
+    static void writeAtomically(Path target, byte[] content) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(content);
+            while (buf.hasRemaining()) {
+                channel.write(buf);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Copies a file that failed verification next to itself, so it can be inspected or
+     * recovered after the damaged original has been replaced. The copy is named after the
+     * CRC32C of the content, so loading the same damaged file again reuses the existing copy.
+     *
+     * @param file the damaged file.
+     * @return the copy.
+     * @throws IOException if the copy cannot be made.
+     */
+    static Path backUpCorrupt(Path file) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 16);
+            while (channel.read(chunk.clear()) > 0) {
+                crc.update(chunk.flip());
+            }
+        }
+        Path backup = file.resolveSibling(file.getFileName() + ".corrupt-" + toHex(crc.getValue()));
+        if (Files.exists(backup)) {
+            return backup;
+        }
+        return Files.copy(file, backup);
+    }
+
+    /**
+     * Returns the CRC32C of the given bytes as eight lowercase hex digits.
+     */
+    static String crc32cHex(byte[] bytes, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return toHex(crc.getValue());
+    }
+
+    /**
+     * Returns a CRC32C value as eight lowercase hex digits.
+     */
+    static String toHex(long crc) {
+        String hex = Long.toHexString(crc);
+        return "00000000".substring(hex.length()) + hex;
+    }
+
+    private static void forceDirectory(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened or forced on every platform; the rename is still atomic
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package mario.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable binary indexed tree over 0/1 slot occupancy, used by {@link TaskManager} to map a
+ * task's position in the list to its slot when deleted tasks leave tombstones behind.
+ * Both updates and position lookups take O(log n).
+ */
+class FenwickTree {
+    private int[] weights = new int[16];
+    private int[] tree = new int[17];
+    private int size;
+
+    /**
+     * Appends a slot with the given weight.
+     *
+     * @param weight 1 for a live slot, 0 for an empty one.
+     */
+    void append(int weight) {
+        if (size == weights.length) {
+            weights = Arrays.copyOf(weights, size * 2);
+            rebuild();
+        }
+        size++;
+        int i = size;
+        // The new node covers (i - lowbit(i), i]: its own weight plus the nodes nested under it
+        tree[i] = weight;
+        for (int child = i - 1; child > i - (i & -i); child -= child & -child) {
+            tree[i] += tree[child];
+        }
+        weights[size - 1] = weight;
+    }
+
+    /**
+     * Adds {@code delta} to the weight of the given slot.
+     *
+     * @param slot the 0-based slot.
+     * @param delta the change in weight.
+     */
+    void add(int slot, int delta) {
+        weights[slot] += delta;
+        for (int i = slot + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Returns the slot holding the {@code rank}-th live entry.
+     *
+     * @param rank the 0-based position among live slots; must be less than the number of live slots.
+     * @return the 0-based slot.
+     */
+    int select(int rank) {
+        int remaining = rank + 1;
+        int pos = 0;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= size && tree[next] < remaining) {
+                pos = next;
+                remaining -= tree[next];
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Drops every slot.
+     */
+    void clear() {
+        Arrays.fill(tree, 0);
+        Arrays.fill(weights, 0);
+        size = 0;
+    }
+
+    /** Rebuilds the cumulative tree from {@link #weights} in linear time, sized to its capacity. */
+    private void rebuild() {
+        tree = new int[weights.length + 1];
+        for (int i = 1; i <= size; i++) {
+            tree[i] += weights[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package mario.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parses the ISO dates ({@code yyyy-MM-dd}) and date-times ({@code yyyy-MM-ddTHH:mm} or
+ * {@code yyyy-MM-ddTHH:mm:ss}) used in commands and the storage file.
+ * <p>
+ * Text of exactly those widths is decoded digit by digit, without going through a
+ * {@link java.time.format.DateTimeFormatter} or throwing on the way. Anything else, such as
+ * fractions of a second, is handed to {@link LocalDate#parse} or {@link LocalDateTime#parse}, so
+ * every method accepts and rejects exactly what those do.
+ * <p>
+ * Results are kept in a small cache of recently parsed text, since a task file tends to repeat
+ * the same few dates: a repeated date costs a lookup and yields the same instance every time.
+ * The cache is split into sets of a few entries each, and a full set evicts its least recently
+ * used entry. It takes no locks; threads racing on a set may lose each other's updates, which
+ * only costs a later miss.
+ */
+public final class IsoDateParser {
+    private static final Cache<LocalDate> DATES = new Cache<>();
+    private static final Cache<LocalDateTime> DATE_TIMES = new Cache<>();
+
+    private IsoDateParser() {
+    }
+
+    /**
+     * Parses an ISO date, as {@link LocalDate#parse(CharSequence)} does.
+     *
+     * @param text the date, such as {@code 2025-09-12}.
+     * @return the date.
+     * @throws DateTimeParseException if the text is not an ISO date.
+     */
+    public static LocalDate parseDate(String text) {
+        LocalDate date = DATES.get(text);
+        if (date == null) {
+            date = decodeDate(text);
+            if (date == null) {
+                date = LocalDate.parse(text);
+            }
+            DATES.put(text, date);
+        }
+        return date;
+    }
+
+    /**
+     * Parses an ISO date-time, as {@link LocalDateTime#parse(CharSequence)} does.
+     *
+     * @param text the date-time, such as {@code 2025-09-12T14:30}.
+     * @return the date-time.
+     * @throws DateTimeParseException if the text is not an ISO date-time.
+     */
+    public static LocalDateTime parseDateTime(String text) {
+        LocalDateTime dateTime = parseDateTimeOrNull(text);
+        return dateTime != null ? dateTime : LocalDateTime.parse(text);
+    }
+
+    /**
+     * Parses an ISO date-time, returning null instead of throwing if the text is not one.
+     *
+     * @param text the date-time, such as {@code 2025-09-12T14:30}.
+     * @return the date-time, or null if {@link LocalDateTime#parse(CharSequence)} would reject the text.
+     */
+    public static LocalDateTime parseDateTimeOrNull(String text) {
+        LocalDateTime dateTime = DATE_TIMES.get(text);
+        if (dateTime == null) {
+            dateTime = decodeDateTime(text);
+            if (dateTime == null) {
+                // Without a 'T', in either case, it cannot be a date-time, so spare the exception in the common case
+                if (text.indexOf('T') < 0 && text.indexOf('t') < 0) {
+                    return null;
+                }
+                try {
+                    dateTime = LocalDateTime.parse(text);
+                } catch (DateTimeParseException e) {
+                    return null;
+                }
+            }
+            DATE_TIMES.put(text, dateTime);
+        }
+        return dateTime;
+    }
+
+    /** Decodes exactly {@code yyyy-MM-dd}, or returns null. */
+    private static LocalDate decodeDate(String text) {
+        return text.length() == 10 ? decodeDate(text, 0) : null;
+    }
+
+    /** Decodes exactly {@code yyyy-MM-ddTHH:mm} or {@code yyyy-MM-ddTHH:mm:ss}, or returns null. */
+    private static LocalDateTime decodeDateTime(String text) {
+        int length = text.length();
+        if ((length != 16 && length != 19) || text.charAt(10) != 'T' || text.charAt(13) != ':'
+                || (length == 19 && text.charAt(16) != ':')) {
+            return null;
+        }
+        LocalDate date = decodeDate(text, 0);
+        int hour = twoDigits(text, 11);
+        int minute = twoDigits(text, 14);
+        int second = length == 19 ? twoDigits(text, 17) : 0;
+        if (date == null || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return null;
+        }
+        return date.atTime(hour, minute, second);
+    }
+
+    private static LocalDate decodeDate(String text, int at) {
+        int year = twoDigits(text, at) * 100 + twoDigits(text, at + 2);
+        int month = twoDigits(text, at + 5);
+        int day = twoDigits(text, at + 8);
+        if (year < 0 || month < 1 || month > 12 || day < 1
+                || text.charAt(at + 4) != '-' || text.charAt(at + 7) != '-') {
+            return null;
+        }
+        if (day > Month.of(month).length(Year.isLeap(year))) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private static int twoDigits(String text, int at) {
+        int tens = text.charAt(at) - '0';
+        int ones = text.charAt(at + 1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -10_000;
+        }
+        return tens * 10 + ones;
+    }
+
+    /**
+     * Set-associative cache from text to its parsed value, keeping the most recently used entry
+     * of each set first.
+     */
+    private static final class Cache<T> {
+        private static final int SETS = 64;
+        private static final int WAYS = 4;
+
+        private final Entry<?>[] entries = new Entry<?>[SETS * WAYS];
+
+        private record Entry<T>(String text, T value) {
+        }
+
+        @SuppressWarnings("unchecked")
+        T get(String text) {
+            int base = setOf(text);
+            for (int way = 0; way < WAYS; way++) {
+                Entry<T> entry = (Entry<T>) entries[base + way];
+                if (entry == null) {
+                    return null;
+                }
+                if (entry.text().equals(text)) {
+                    if (way > 0) {
+                        System.arraycopy(entries, base, entries, base + 1, way);
+                        entries[base] = entry;
+                    }
+                    return entry.value();
+                }
+            }
+            return null;
+        }
+
+        void put(String text, T value) {
+            int base = setOf(text);
+            System.arraycopy(entries, base, entries, base + 1, WAYS - 1);
+            entries[base] = new Entry<>(text, value);
+        }
+
+        private static int setOf(String text) {
+            int h = text.hashCode();
+            return ((h ^ (h >>> 16)) & (SETS - 1)) * WAYS;
+        }
+    }
+}
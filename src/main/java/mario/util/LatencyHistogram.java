@@ -0,0 +1,106 @@
+package mario.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts durations, in nanoseconds, in logarithmic buckets, in the style of HdrHistogram.
+ * <p>
+ * Each power of two is split into {@value #SUB_BUCKETS} equal sub-buckets, so a percentile is
+ * reported to within an eighth of its value, while every {@code long} fits in a few hundred
+ * counters. Values below {@code 2 * SUB_BUCKETS} are counted exactly.
+ * <p>
+ * Recording takes no lock and allocates nothing: it increments one bucket and raises the maximum
+ * if needed. Counts and percentiles are worked out from the buckets when they are read, so a
+ * reader running alongside simply sees the values recorded so far.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Enough buckets for {@link Long#MAX_VALUE}, whose index is the highest. */
+    private static final int BUCKETS = bucketOf(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one duration. Negative durations, which a clock adjustment could produce, count as zero.
+     *
+     * @param nanos the duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        long seen = max.get();
+        while (value > seen && !max.compareAndSet(seen, value)) {
+            seen = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     *
+     * @return the count.
+     */
+    public long getCount() {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            n += counts.get(i);
+        }
+        return n;
+    }
+
+    /**
+     * Returns the largest duration recorded.
+     *
+     * @return the duration in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the duration that the given percentage of recordings do not exceed, rounded up to the
+     * top of its bucket but never above the largest duration recorded.
+     *
+     * @param percentile the percentage, from 0 to 100.
+     * @return the duration in nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = getCount();
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && n > 0; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Forgets every recording. Durations recorded while the reset is under way may be partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    /**
+     * Returns the bucket of a non-negative value: values below {@code 2 * SUB_BUCKETS} have a bucket
+     * each, and every power of two above that is split into {@code SUB_BUCKETS} buckets.
+     */
+    private static int bucketOf(long value) {
+        int shift = Math.max(0, Long.SIZE - SUB_BUCKET_BITS - 1 - Long.numberOfLeadingZeros(value));
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long highestValueIn(int bucket) {
+        int shift = Math.max(0, (bucket >> SUB_BUCKET_BITS) - 1);
+        long first = (long) (bucket - (shift << SUB_BUCKET_BITS)) << shift;
+        return first + (1L << shift) - 1;
+    }
+}
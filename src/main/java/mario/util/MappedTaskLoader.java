@@ -0,0 +1,409 @@
+package mario.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import mario.tasks.Deadline;
+import mario.tasks.Events;
+import mario.tasks.Task;
+import mario.tasks.ToDo;
+
+/**
+ * Loads text task files by scanning their bytes directly instead of reading them line by line.
+ * <p>
+ * The file is read through its channel in large line-aligned windows, and each line is located,
+ * split into its fields and has its dates decoded without creating intermediate Strings; the
+ * description is the only String allocated per task. The file is not memory-mapped: a mapping
+ * stays alive until the garbage collector releases it, and on Windows it keeps the file from
+ * being replaced or renamed, which {@link Storage} does right after loading.
+ * <p>
+ * Lines that do not follow the format written by {@link Storage} exactly (for example
+ * hand-edited dates) are handed to {@link Parser#parseStorageLine(String)}, so the result is
+ * always the same as parsing the file line by line. A line that the parser cannot turn into a
+ * task, whether it rejects the line with an exception (say, for an impossible date) or simply
+ * does not recognise it, is skipped and handed back to the caller instead of failing the whole
+ * load. Blank lines and the checksum footer written by {@link Storage} are skipped silently.
+ * <p>
+ * Content of at least {@value #PARALLEL_THRESHOLD} bytes is split into newline-aligned chunks
+ * that are parsed concurrently on the common fork-join pool and concatenated back in file order.
+ */
+public class MappedTaskLoader {
+    /** Size of the direct buffer a file is read through; longer files are read in line-aligned windows. */
+    private static final int WINDOW_SIZE = 8 << 20;
+    /** Longest line the window grows to hold. */
+    private static final int MAX_LINE_LENGTH = 1 << 30;
+    /** Content smaller than this is parsed on the calling thread. */
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int MIN_CHUNK_SIZE = 1 << 18;
+
+    private static final byte[] BY_MARKER = "(by:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FROM_MARKER = "(from:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TO_MARKER = ", to:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FOOTER_MARKER = Storage.FOOTER_PREFIX.getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteBuffer buf;
+    private final ArrayList<Task> tasks = new ArrayList<>();
+    private final List<String> unreadableLines = new ArrayList<>();
+    private byte[] scratch = new byte[256];
+
+    private MappedTaskLoader(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    /**
+     * Loads every task in the given text file.
+     *
+     * @param path the task file; must exist.
+     * @param unreadableLines receives, in file order, the lines that were skipped because they could not be read.
+     * @return the tasks in file order.
+     * @throws IOException if the file cannot be read or has a line longer than {@value #MAX_LINE_LENGTH} bytes.
+     */
+    public static ArrayList<Task> load(Path path, List<String> unreadableLines) throws IOException {
+        return load(path, unreadableLines, WINDOW_SIZE);
+    }
+
+    /**
+     * Loads every task in the given text file, reading it through a window of the given size.
+     */
+    static ArrayList<Task> load(Path path, List<String> unreadableLines, int windowSize) throws IOException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer window = ByteBuffer.allocateDirect((int) Math.max(1, Math.min(windowSize, channel.size())));
+            while (true) {
+                int read = 0;
+                while (window.hasRemaining() && (read = channel.read(window)) >= 0) {
+                    // Keep reading until the window is full or the file ends
+                }
+                boolean isEnd = read < 0;
+                int filled = window.position();
+                int end = isEnd ? filled : lastLineEnd(window, filled);
+                if (end == 0 && !isEnd) {
+                    window = grow(window);
+                    continue;
+                }
+                parseRegion(window, end, tasks, unreadableLines);
+                if (isEnd) {
+                    return tasks;
+                }
+                // Carry the partial last line over to the start of the next window
+                window.limit(filled).position(end);
+                window.compact();
+            }
+        }
+    }
+
+    /** Returns a window twice as large holding the content read so far, for a line that did not fit. */
+    private static ByteBuffer grow(ByteBuffer window) throws IOException {
+        if (window.capacity() >= MAX_LINE_LENGTH) {
+            throw new IOException("Task file has a line longer than " + MAX_LINE_LENGTH + " bytes");
+        }
+        ByteBuffer larger = ByteBuffer.allocateDirect(Math.min(MAX_LINE_LENGTH, window.capacity() * 2));
+        return larger.put(window.flip());
+    }
+
+    /**
+     * Parses every task in the given buffer of text task file content.
+     *
+     * @param content the file content, from position 0 to its limit.
+     * @param unreadableLines receives, in file order, the lines that were skipped because they could not be read.
+     * @return the tasks in file order.
+     */
+    public static ArrayList<Task> parse(ByteBuffer content, List<String> unreadableLines) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        parseRegion(content, content.limit(), tasks, unreadableLines);
+        return tasks;
+    }
+
+    /**
+     * Parses {@code [0, end)} of the buffer into {@code out}, splitting it across the fork-join
+     * pool when it is large enough. Each chunk gets its own loader, and absolute reads on the
+     * shared buffer are safe to make concurrently.
+     */
+    private static void parseRegion(ByteBuffer buf, int end, ArrayList<Task> out, List<String> unreadableLines) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (end < PARALLEL_THRESHOLD || parallelism < 2) {
+            new MappedTaskLoader(buf).parseLines(0, end).drainTo(out, unreadableLines);
+            return;
+        }
+
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, end / (parallelism * 4));
+        List<ForkJoinTask<MappedTaskLoader>> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        while (chunkStart < end) {
+            int chunkEnd = nextLineEnd(buf, Math.min(end, chunkStart + chunkSize), end);
+            int from = chunkStart;
+            chunks.add(ForkJoinPool.commonPool().submit(() -> new MappedTaskLoader(buf).parseLines(from, chunkEnd)));
+            chunkStart = chunkEnd;
+        }
+        for (ForkJoinTask<MappedTaskLoader> chunk : chunks) {
+            chunk.join().drainTo(out, unreadableLines);
+        }
+    }
+
+    private void drainTo(ArrayList<Task> out, List<String> unreadableOut) {
+        out.addAll(tasks);
+        unreadableOut.addAll(unreadableLines);
+    }
+
+    /** Returns the offset just past the first newline at or after {@code from}, or {@code end} if none. */
+    private static int nextLineEnd(ByteBuffer buf, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buf.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    /** Returns the offset just past the last newline before {@code end}, or 0 if there is none. */
+    private static int lastLineEnd(ByteBuffer buf, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (buf.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /** Parses the lines in {@code [from, to)}, collecting the results in this loader. */
+    private MappedTaskLoader parseLines(int from, int to) {
+        int lineStart = from;
+        while (lineStart < to) {
+            int lineEnd = lineStart;
+            while (lineEnd < to && buf.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && buf.get(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            Task task = parseLine(lineStart, contentEnd);
+            if (task != null) {
+                tasks.add(task);
+            } else if (skipSpaces(lineStart, contentEnd) < contentEnd && !isFooter(lineStart, contentEnd)) {
+                unreadableLines.add(string(lineStart, contentEnd));
+            }
+            lineStart = lineEnd + 1;
+        }
+        return this;
+    }
+
+    /**
+     * Parses the line in {@code [start, end)}, mirroring {@link Parser#parseStorageLine(String)}.
+     */
+    private Task parseLine(int start, int end) {
+        int id = Task.NO_ID;
+        if (start < end && buf.get(start) == '#') {
+            int digitsEnd = start + 1;
+            long value = 0;
+            int limit = Math.min(end, start + 11);
+            while (digitsEnd < limit && isDigit(buf.get(digitsEnd))) {
+                value = value * 10 + buf.get(digitsEnd) - '0';
+                digitsEnd++;
+            }
+            if (digitsEnd == start + 1 || digitsEnd == end || buf.get(digitsEnd) != ' '
+                    || value <= 0 || value > Integer.MAX_VALUE) {
+                return fallback(start, end);
+            }
+            id = (int) value;
+            start = digitsEnd + 1;
+        }
+        Task task = parseTask(start, end);
+        if (task != null && id != Task.NO_ID) {
+            task.setId(id);
+        }
+        return task;
+    }
+
+    private Task parseTask(int start, int end) {
+        if (end - start < 7) {
+            return null;
+        }
+        for (int i = start; i < start + 7; i++) {
+            if (buf.get(i) < 0) {
+                // Non-ASCII header: char and byte offsets differ, let the String parser decide
+                return fallback(start, end);
+            }
+        }
+        byte type = buf.get(start + 1);
+        boolean isDone = buf.get(start + 4) == 'X';
+        int restStart = skipSpaces(start + 7, end);
+        int restEnd = trimSpaces(restStart, end);
+
+        Task task;
+        switch (type) {
+        case 'T':
+            if (restStart == restEnd) {
+                return null;
+            }
+            task = new ToDo(string(restStart, restEnd));
+            break;
+        case 'D':
+            task = parseDeadline(restStart, restEnd);
+            break;
+        case 'E':
+            task = parseEvent(restStart, restEnd);
+            break;
+        default:
+            return null;
+        }
+        if (task == null) {
+            return fallback(start, end);
+        }
+        if (isDone) {
+            task.markDone();
+        }
+        return task;
+    }
+
+    /** Parses {@code desc (by: yyyy-MM-dd)}, or returns null if the line needs the general parser. */
+    private Task parseDeadline(int start, int end) {
+        int by = lastIndexOf(BY_MARKER, start, end);
+        if (by < 0 || buf.get(end - 1) != ')') {
+            return null;
+        }
+        int descEnd = trimSpaces(start, by);
+        int dateStart = skipSpaces(by + BY_MARKER.length, end - 1);
+        int dateEnd = trimSpaces(dateStart, end - 1);
+        if (descEnd == start || dateEnd - dateStart != 10) {
+            return null;
+        }
+        LocalDate date = parseDate(dateStart);
+        return date == null ? null : new Deadline(string(start, descEnd), date);
+    }
+
+    /** Parses {@code desc (from: START, to: END)}, or returns null if the line needs the general parser. */
+    private Task parseEvent(int start, int end) {
+        int from = lastIndexOf(FROM_MARKER, start, end);
+        if (from < 0 || buf.get(end - 1) != ')') {
+            return null;
+        }
+        int timesEnd = end - 1;
+        int to = lastIndexOf(TO_MARKER, from + FROM_MARKER.length, timesEnd);
+        if (to < 0) {
+            return null;
+        }
+        int descEnd = trimSpaces(start, from);
+        int startTimeStart = skipSpaces(from + FROM_MARKER.length, to);
+        int endTimeStart = skipSpaces(to + TO_MARKER.length, timesEnd);
+        LocalDateTime startTime = parseDateTime(startTimeStart, trimSpaces(startTimeStart, to));
+        LocalDateTime endTime = parseDateTime(endTimeStart, trimSpaces(endTimeStart, timesEnd));
+        if (descEnd == start || startTime == null || endTime == null) {
+            return null;
+        }
+        return new Events(string(start, descEnd), startTime, endTime);
+    }
+
+    /** Decodes {@code yyyy-MM-ddTHH:mm} or {@code yyyy-MM-ddTHH:mm:ss}; anything else returns null. */
+    private LocalDateTime parseDateTime(int start, int end) {
+        int length = end - start;
+        if ((length != 16 && length != 19) || buf.get(start + 10) != 'T') {
+            return null;
+        }
+        LocalDate date = parseDate(start);
+        int hour = twoDigits(start + 11);
+        int minute = twoDigits(start + 14);
+        int second = length == 19 ? twoDigits(start + 17) : 0;
+        if (date == null || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59
+                || buf.get(start + 13) != ':' || (length == 19 && buf.get(start + 16) != ':')) {
+            return null;
+        }
+        return date.atTime(hour, minute, second);
+    }
+
+    /** Decodes the {@code yyyy-MM-dd} at {@code start}, returning null if it is not a valid date. */
+    private LocalDate parseDate(int start) {
+        int year = twoDigits(start) * 100 + twoDigits(start + 2);
+        int month = twoDigits(start + 5);
+        int day = twoDigits(start + 8);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31
+                || buf.get(start + 4) != '-' || buf.get(start + 7) != '-') {
+            return null;
+        }
+        if (day > 28 && day > LocalDate.of(year, month, 1).lengthOfMonth()) {
+            return null;
+        }
+        return LocalDate.of(year, month, day);
+    }
+
+    private int twoDigits(int at) {
+        int tens = buf.get(at) - '0';
+        int ones = buf.get(at + 1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -10_000;
+        }
+        return tens * 10 + ones;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private int lastIndexOf(byte[] marker, int start, int end) {
+        for (int i = end - marker.length; i >= start; i--) {
+            int j = 0;
+            while (j < marker.length && buf.get(i + j) == marker[j]) {
+                j++;
+            }
+            if (j == marker.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int skipSpaces(int start, int end) {
+        while (start < end && (buf.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimSpaces(int start, int end) {
+        while (end > start && (buf.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private String string(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buf.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /** Returns true if the line in {@code [start, end)} is the checksum footer of a text storage file. */
+    private boolean isFooter(int start, int end) {
+        if (end - start < FOOTER_MARKER.length) {
+            return false;
+        }
+        for (int i = 0; i < FOOTER_MARKER.length; i++) {
+            if (buf.get(start + i) != FOOTER_MARKER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Task fallback(int start, int end) {
+        try {
+            return Parser.parseStorageLine(string(start, end));
+        } catch (RuntimeException e) {
+            // Reported as unreadable by parseLines, like any other line that yields no task
+            return null;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package mario.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import mario.commands.Command;
+
+/**
+ * Latencies and counters of one chatbot and its storage, kept as cheaply as possible so they can
+ * stay on in production.
+ * <p>
+ * Every command's time is split into three phases, each with a {@link LatencyHistogram} per kind of
+ * command: parsing the input, executing it, and persisting its changes. {@link Storage} reports the
+ * time it spends writing through {@link #addPersistNanos(long)}; the caller timing a command takes
+ * that time back with {@link #takePersistNanos()} to tell persisting apart from executing. Loads and
+ * saves are timed as a whole too, alongside counters of tasks loaded, bytes written and saves.
+ * <p>
+ * The figures are shown by the {@code stats} command and can be published over JMX with
+ * {@link #registerMBean(String)}.
+ */
+public final class Metrics implements MetricsMBean {
+    /**
+     * Part of handling a command that is timed on its own.
+     */
+    public enum Phase {
+        /** Turning the input into a command. */
+        PARSE,
+        /** Running the command, except for the time spent in storage. */
+        EXECUTE,
+        /** Writing the command's changes to storage. */
+        PERSIST
+    }
+
+    private static final Command.Type[] TYPES = Command.Type.values();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LatencyHistogram[][] latencies = new LatencyHistogram[TYPES.length][PHASES.length];
+    private final LatencyHistogram loadLatency = new LatencyHistogram();
+    private final LatencyHistogram saveLatency = new LatencyHistogram();
+    private final LongAdder tasksLoaded = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    /** Time each thread has spent in storage since it last called {@link #takePersistNanos()}. */
+    private final ThreadLocal<long[]> persistNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Creates metrics with nothing recorded.
+     */
+    public Metrics() {
+        for (LatencyHistogram[] phases : latencies) {
+            for (int i = 0; i < phases.length; i++) {
+                phases[i] = new LatencyHistogram();
+            }
+        }
+    }
+
+    /**
+     * Records how long one phase of a command took.
+     *
+     * @param type the kind of command; {@link Command.Type#UNKNOWN} for input that failed to parse.
+     * @param phase the phase that was timed.
+     * @param nanos the duration in nanoseconds.
+     */
+    public void record(Command.Type type, Phase phase, long nanos) {
+        latencies[type.ordinal()][phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Returns the latencies of one phase of one kind of command.
+     *
+     * @param type the kind of command.
+     * @param phase the phase.
+     * @return the live histogram.
+     */
+    public LatencyHistogram getLatency(Command.Type type, Phase phase) {
+        return latencies[type.ordinal()][phase.ordinal()];
+    }
+
+    /**
+     * Records a load of the task list.
+     *
+     * @param nanos how long the load took.
+     * @param taskCount the number of tasks loaded.
+     */
+    public void recordLoad(long nanos, int taskCount) {
+        loadLatency.record(nanos);
+        tasksLoaded.add(taskCount);
+    }
+
+    /**
+     * Records a save of the whole task list, which also counts as persisting time for the
+     * current thread.
+     *
+     * @param nanos how long the save took.
+     * @param bytes the size of the file written.
+     */
+    public void recordSave(long nanos, long bytes) {
+        saveLatency.record(nanos);
+        bytesWritten.add(bytes);
+        addPersistNanos(nanos);
+    }
+
+    /**
+     * Records bytes handed to the storage journal.
+     *
+     * @param bytes the number of bytes.
+     */
+    public void addBytesWritten(long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    /**
+     * Adds to the time the current thread has spent persisting since it last called
+     * {@link #takePersistNanos()}.
+     *
+     * @param nanos the time spent in nanoseconds.
+     */
+    public void addPersistNanos(long nanos) {
+        persistNanos.get()[0] += nanos;
+    }
+
+    /**
+     * Returns the time the current thread has spent persisting since it last called this method,
+     * and starts counting afresh.
+     *
+     * @return the time in nanoseconds.
+     */
+    public long takePersistNanos() {
+        long[] spent = persistNanos.get();
+        long nanos = spent[0];
+        spent[0] = 0;
+        return nanos;
+    }
+
+    @Override
+    public long getTasksLoaded() {
+        return tasksLoaded.sum();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    @Override
+    public long getSaves() {
+        return saveLatency.getCount();
+    }
+
+    @Override
+    public long getCommands() {
+        long commands = 0;
+        for (LatencyHistogram[] phases : latencies) {
+            commands += phases[Phase.PARSE.ordinal()].getCount();
+        }
+        return commands;
+    }
+
+    @Override
+    public String getReport() {
+        return report();
+    }
+
+    @Override
+    public double percentileMicros(String commandType, String phase, double percentile) {
+        Command.Type type = Command.Type.valueOf(commandType.toUpperCase(Locale.ROOT));
+        return getLatency(type, Phase.valueOf(phase.toUpperCase(Locale.ROOT))).getValueAtPercentile(percentile)
+                / 1_000.0;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram[] phases : latencies) {
+            for (LatencyHistogram histogram : phases) {
+                histogram.reset();
+            }
+        }
+        loadLatency.reset();
+        saveLatency.reset();
+        tasksLoaded.reset();
+        bytesWritten.reset();
+    }
+
+    /**
+     * Returns a table of the latency percentiles of every phase that has been recorded, in
+     * microseconds, followed by the storage counters.
+     *
+     * @return the report, one line per row.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-9s %-8s %8s %10s %10s %10s %10s\n",
+                "command", "phase", "count", "p50 us", "p90 us", "p99 us", "max us"));
+        for (Command.Type type : TYPES) {
+            for (Phase phase : PHASES) {
+                appendRow(sb, type.name(), phase.name(), getLatency(type, phase));
+            }
+        }
+        appendRow(sb, "storage", "LOAD", loadLatency);
+        appendRow(sb, "storage", "SAVE", saveLatency);
+        sb.append(String.format("Tasks loaded: %d, saves: %d, bytes written: %d\n",
+                getTasksLoaded(), getSaves(), getBytesWritten()));
+        return sb.toString();
+    }
+
+    private static void appendRow(StringBuilder sb, String name, String phase, LatencyHistogram histogram) {
+        long count = histogram.getCount();
+        if (count == 0) {
+            return;
+        }
+        sb.append(String.format("%-9s %-8s %8d %10.1f %10.1f %10.1f %10.1f\n",
+                name.toLowerCase(Locale.ROOT), phase.toLowerCase(Locale.ROOT), count,
+                histogram.getValueAtPercentile(50) / 1_000.0, histogram.getValueAtPercentile(90) / 1_000.0,
+                histogram.getValueAtPercentile(99) / 1_000.0, histogram.getMax() / 1_000.0));
+    }
+
+    /**
+     * Publishes these metrics as the JMX MBean {@code mario:type=Metrics,name=NAME}, replacing any
+     * MBean already published under that name. A failure is reported on standard error, since the
+     * chatbot works just as well without it.
+     *
+     * @param name what the metrics belong to, such as a server tenant.
+     */
+    public void registerMBean(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName("mario:type=Metrics,name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            System.err.println("Could not publish metrics over JMX: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package mario.util;
+
+/**
+ * Management interface through which JMX clients such as JConsole read a {@link Metrics}.
+ */
+public interface MetricsMBean {
+    /** Returns the total number of tasks loaded from storage. */
+    long getTasksLoaded();
+
+    /** Returns the total number of bytes written to storage. */
+    long getBytesWritten();
+
+    /** Returns the number of full saves. */
+    long getSaves();
+
+    /** Returns the number of commands parsed, including those that failed to parse. */
+    long getCommands();
+
+    /** Returns the latency percentiles and storage counters, as shown by the {@code stats} command. */
+    String getReport();
+
+    /**
+     * Returns a percentile of one phase of one kind of command.
+     *
+     * @param commandType the name of a {@link mario.commands.Command.Type}, such as {@code LIST}.
+     * @param phase the name of a {@link Metrics.Phase}, such as {@code EXECUTE}.
+     * @param percentile the percentage, from 0 to 100.
+     * @return the latency in microseconds, or 0 if none was recorded.
+     */
+    double percentileMicros(String commandType, String phase, double percentile);
+
+    /**
+     * Forgets every latency and counter recorded so far.
+     */
+    void reset();
+}
@@ -1,27 +1,12 @@
 package mario.util;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeParseException;
 
-import mario.commands.ByeCommand;
 import mario.commands.Command;
-import mario.commands.DeadlineCommand;
-import mario.commands.DeleteCommand;
-import mario.commands.EventCommand;
-import mario.commands.FindCommand;
-import mario.commands.ListCommand;
-import mario.commands.MarkCommand;
-import mario.commands.TodoCommand;
-import mario.commands.UnmarkCommand;
-import mario.commands.ViewCommand;
+import mario.commands.CommandParser;
+import mario.commands.CommandRegistry;
 import mario.exceptions.MarioException;
-import mario.exceptions.EmptyDeadlineTimeException;
-import mario.exceptions.EmptyEventTimeException;
-import mario.exceptions.EmptyKeywordException;
-import mario.exceptions.EmptyTaskException;
 import mario.exceptions.InvalidCommandException;
-import mario.exceptions.InvalidTaskIndexException;
 import mario.tasks.Deadline;
 import mario.tasks.Events;
 import mario.tasks.Task;
@@ -35,147 +20,64 @@ import mario.tasks.ToDo;
  * for execution, and also to reconstruct tasks from their serialized form in storage.
  */
 public class Parser {
+    private static final CommandRegistry COMMANDS = CommandRegistry.standard();
+
     /**
-     * Parses a raw user input into a concrete {@link mario.commands.Command}.
+     * Parses a raw user input into one of the built-in {@link mario.commands.Command}s.
      */
     public static Command parse(String input) throws MarioException {
-        if (input == null || input.trim().isEmpty()) {
-            throw new InvalidCommandException("");
-        }
-        String trimmed = input.trim();
-        String lower = trimmed.toLowerCase();
-
-        // Single-word commands
-        if (lower.equals("list")) {
-            return new ListCommand();
-        }
-        if (lower.equals("bye") || lower.equals("exit")) {
-            return new ByeCommand();
-        }
-
-        String[] parts = trimmed.split(" ", 2);
-        String cmd = parts[0].toLowerCase();
-        String rest = parts.length > 1 ? parts[1].trim() : "";
-
-        switch (cmd) {
-        case "todo": {
-            // allow empty to trigger proper EmptyTaskException in TodoCommand
-            return new TodoCommand(rest);
-        }
-        case "deadline": {
-            if (rest.isEmpty()) {
-                // no payload at all
-                throw new EmptyTaskException("deadline");
-            }
-            String[] dlParts = rest.split(" /by ", 2);
-            String desc = dlParts[0].trim();
-            if (desc.isEmpty()) {
-                throw new EmptyTaskException("deadline");
-            }
-            if (dlParts.length < 2 || dlParts[1].trim().isEmpty()) {
-                // missing /by time
-                throw new EmptyDeadlineTimeException();
-            }
-            LocalDate by;
-            try {
-                by = LocalDate.parse(dlParts[1].trim()); // expect ISO yyyy-MM-dd
-            } catch (DateTimeParseException e) {
-                throw new MarioException("Use ISO date for /by, e.g. 2025-09-12");
-            }
-            return new DeadlineCommand(desc, by);
-        }
-        case "event": {
-            if (rest.isEmpty()) {
-                throw new EmptyTaskException("event");
-            }
-            int fromIdx = rest.indexOf(" /from ");
-            if (fromIdx == -1) {
-                throw new EmptyEventTimeException();
-            }
-            String desc = rest.substring(0, fromIdx).trim();
-            String afterFrom = rest.substring(fromIdx + 7).trim();
-
-            int toIdx = afterFrom.indexOf(" /to ");
-
-            if (toIdx == -1) {
-                throw new EmptyEventTimeException();
-            }
-            String fromStr = afterFrom.substring(0, toIdx).trim();
-            String toStr = afterFrom.substring(toIdx + 5).trim();
-
-            if (desc.isEmpty()) {
-                throw new EmptyTaskException("event");
-            }
-
-            if (fromStr.isEmpty() || toStr.isEmpty()) {
-                throw new EmptyEventTimeException();
-            }
-
-            LocalDateTime from;
-            LocalDateTime to;
-            try {
-                from = LocalDateTime.parse(fromStr.trim());
-                to = LocalDateTime.parse(toStr.trim());
-            } catch (DateTimeParseException e) {
-                throw new MarioException("Use ISO date-time format for /from and /to, e.g. 2025-09-12T14:30");
-            }
-
-            return new EventCommand(desc, from, to);
-        }
-        case "mark": {
-            int idx = parseIndexOrThrow(rest);
-            return new MarkCommand(idx);
-        }
-        case "unmark": {
-            int idx = parseIndexOrThrow(rest);
-            return new UnmarkCommand(idx);
-        }
-        case "delete": {
-            int idx = parseIndexOrThrow(rest);
-            return new DeleteCommand(idx);
-        }
-        case "find": {
-            if (rest.isEmpty()) {
-                throw new EmptyKeywordException();
-            }
-            return new FindCommand(rest);
-        }
-        case "view": {
-            LocalDate date;
-            if (rest.isEmpty()) {
-                date = LocalDate.now();
-            } else {
-                try {
-                    date = LocalDate.parse(rest);
-                } catch (DateTimeParseException e) {
-                    throw new MarioException("Use ISO date for view, e.g. view 2025-09-20");
-                }
-            }
-            return new ViewCommand(date);
-        }
-        default:
-            throw new InvalidCommandException(cmd);
-        }
+        return parse(input, COMMANDS);
     }
 
-    private static int parseIndexOrThrow(String rest) throws MarioException {
-        if (rest == null || rest.isBlank()) {
-            throw new InvalidTaskIndexException("Give me a task number, e.g., 2");
+    /**
+     * Parses a raw user input into a concrete {@link mario.commands.Command}, looking its keyword
+     * up in the given registry.
+     * <p>
+     * The input is read in a single pass by a {@link CommandTokenizer}: the keyword is matched in
+     * place, ignoring case, and only the description and values the command keeps are copied out.
+     *
+     * @param input the line the user typed.
+     * @param commands the commands to recognise.
+     * @return the command.
+     * @throws MarioException if the keyword is unknown or its arguments are invalid.
+     */
+    public static Command parse(String input, CommandRegistry commands) throws MarioException {
+        if (input == null) {
+            throw new InvalidCommandException("");
+        }
+        CommandTokenizer in = new CommandTokenizer(input);
+        if (in.isBlank()) {
+            throw new InvalidCommandException("");
         }
-        try {
-            return Integer.parseInt(rest.trim());
-        } catch (NumberFormatException e) {
-            throw new InvalidTaskIndexException("That’s not a number. Try something like: mark 2");
+        CommandParser parser = commands.lookup(in);
+        if (parser == null) {
+            throw new InvalidCommandException(in.keyword());
         }
+        return parser.parse(in);
     }
 
     /**
-     * Parses raw storage line into a {@link Task}
+     * Parses raw storage line into a {@link Task}.
+     * A line may start with the task's id, as in {@code #12 [T][ ] read book}.
      *
      * @param line the raw storage input
      * @return a reconstructed {@link Task} object or null if invalid
      */
     public static Task parseStorageLine(String line) {
+        if (line != null && line.startsWith("#")) {
+            int space = line.indexOf(' ');
+            int id;
+            try {
+                id = space < 0 ? -1 : Integer.parseInt(line.substring(1, space));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            Task task = id <= 0 ? null : parseStorageLine(line.substring(space + 1));
+            if (task != null) {
+                task.setId(id);
+            }
+            return task;
+        }
         if (line == null || line.length() < 7) {
             return null;
         }
@@ -215,7 +117,7 @@ public class Parser {
             if (desc.isEmpty() || by.isEmpty()) {
                 return null;
             }
-            task = new Deadline(desc, LocalDate.parse(by));
+            task = new Deadline(desc, IsoDateParser.parseDate(by));
             break;
         }
         case 'E': { // [E][ ] description (from: START, to: END)
@@ -243,20 +145,16 @@ public class Parser {
                 return null;
             }
 
-            LocalDateTime start;
-            try {
-                start = LocalDateTime.parse(startStr);
-            } catch (DateTimeParseException ex) {
+            LocalDateTime start = IsoDateParser.parseDateTimeOrNull(startStr);
+            if (start == null) {
                 // Fallback: allow date-only and default to start of day
-                start = LocalDate.parse(startStr).atStartOfDay();
+                start = IsoDateParser.parseDate(startStr).atStartOfDay();
             }
 
-            LocalDateTime end;
-            try {
-                end = LocalDateTime.parse(endStr);
-            } catch (DateTimeParseException ex) {
+            LocalDateTime end = IsoDateParser.parseDateTimeOrNull(endStr);
+            if (end == null) {
                 // Fallback: allow date-only and default to end of day
-                end = LocalDate.parse(endStr).atTime(23, 59);
+                end = IsoDateParser.parseDate(endStr).atTime(23, 59);
             }
             task = new Events(desc, start, end);
             break;
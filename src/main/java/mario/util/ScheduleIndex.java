@@ -0,0 +1,357 @@
+package mario.util;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import mario.tasks.Deadline;
+import mario.tasks.Events;
+import mario.tasks.Task;
+import mario.tasks.TimedTask;
+
+/**
+ * Incrementally maintained index of timed tasks that answers "what is on this day" queries
+ * in schedule order without scanning or sorting the task list.
+ * <p>
+ * Deadlines are kept in a sorted map from due date to the deadlines due that day. Events are
+ * kept in an interval tree: a treap ordered by start time whose nodes also track the latest end
+ * time in their subtree, so an in-order walk can skip every subtree that ends before the day
+ * and stop at the first event starting after it. Both sides come out already ordered by
+ * schedule time, then description ignoring case, then insertion order, and a day's schedule is
+ * the merge of the two. A range of days is answered by a single sweep: events are walked in start
+ * order alongside the deadline dates, only the events still running are kept, and each day is
+ * handed on as soon as it is complete, skipping straight over days with nothing on them.
+ */
+class ScheduleIndex {
+    private static final LocalTime DEADLINE_TIME = LocalTime.of(23, 59);
+
+    private static final Comparator<Entry<Deadline>> BY_DESCRIPTION = (a, b) -> {
+        int cmp = description(a.task()).compareToIgnoreCase(description(b.task()));
+        return cmp != 0 ? cmp : Long.compare(a.seq(), b.seq());
+    };
+
+    private final Map<Task, Long> sequence = new IdentityHashMap<>();
+    private final TreeMap<LocalDate, NavigableSet<Entry<Deadline>>> deadlines = new TreeMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private EventNode events;
+    private long nextSequence;
+
+    /**
+     * A task with the position it was indexed at, which breaks ties the same way a stable sort
+     * of the task list would.
+     */
+    private record Entry<T extends TimedTask>(T task, long seq) {
+    }
+
+    /**
+     * Adds a task to the index; tasks that are not {@link TimedTask}s are ignored.
+     *
+     * @param task the task to index.
+     */
+    void add(Task task) {
+        if (!(task instanceof TimedTask)) {
+            return;
+        }
+        long seq = nextSequence++;
+        sequence.put(task, seq);
+        if (task instanceof Deadline deadline) {
+            deadlines.computeIfAbsent(deadline.getDeadline(), d -> new TreeSet<>(BY_DESCRIPTION))
+                    .add(new Entry<>(deadline, seq));
+        } else if (task instanceof Events event) {
+            events = insert(events, new EventNode(event, seq, random.nextInt()));
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task the task to remove.
+     */
+    void remove(Task task) {
+        Long seq = sequence.remove(task);
+        if (seq == null) {
+            return;
+        }
+        if (task instanceof Deadline deadline) {
+            NavigableSet<Entry<Deadline>> due = deadlines.get(deadline.getDeadline());
+            due.remove(new Entry<>(deadline, seq));
+            if (due.isEmpty()) {
+                deadlines.remove(deadline.getDeadline());
+            }
+        } else if (task instanceof Events event) {
+            events = delete(events, event.getStart(), event, seq);
+        }
+    }
+
+    /**
+     * Returns the timed tasks occurring on the given date, ordered by schedule time and then
+     * by description, ignoring case.
+     *
+     * @param date the day to look up.
+     * @return the day's schedule.
+     */
+    List<TimedTask> scheduleFor(LocalDate date) {
+        List<EventNode> onDay = new ArrayList<>();
+        collect(events, date.atStartOfDay(), date.atTime(LocalTime.MAX), onDay);
+        return merge(date, onDay, deadlines.get(date));
+    }
+
+    /**
+     * Hands every day from {@code from} to {@code to}, inclusive, that has at least one timed task
+     * to the visitor in date order, each ordered as {@link #scheduleFor(LocalDate)} orders it.
+     * Only the events running on the current day and that day's schedule are held at a time.
+     *
+     * @param from the first day of the range.
+     * @param to the last day of the range.
+     * @param visitor receives each non-empty day and its schedule.
+     * @return the number of days visited.
+     * @throws IOException if the visitor fails; the remaining days are not visited.
+     */
+    int forEachDayBetween(LocalDate from, LocalDate to, TaskManager.ScheduleVisitor visitor) throws IOException {
+        EventCursor upcoming = new EventCursor(events, from.atStartOfDay());
+        Iterator<Map.Entry<LocalDate, NavigableSet<Entry<Deadline>>>> dueDays =
+                deadlines.subMap(from, true, to, true).entrySet().iterator();
+        Map.Entry<LocalDate, NavigableSet<Entry<Deadline>>> nextDue = dueDays.hasNext() ? dueDays.next() : null;
+        List<EventNode> running = new ArrayList<>();
+
+        int visited = 0;
+        LocalDate day = from;
+        while (day != null && !day.isAfter(to)) {
+            LocalDateTime dayStart = day.atStartOfDay();
+            LocalDateTime dayEnd = day.atTime(LocalTime.MAX);
+            while (upcoming.peek() != null && !upcoming.peek().start.isAfter(dayEnd)) {
+                running.add(upcoming.next());
+            }
+            running.removeIf(node -> node.end.isBefore(dayStart));
+            NavigableSet<Entry<Deadline>> due = null;
+            if (nextDue != null && nextDue.getKey().equals(day)) {
+                due = nextDue.getValue();
+                nextDue = dueDays.hasNext() ? dueDays.next() : null;
+            }
+            if (!running.isEmpty() || due != null) {
+                visitor.visit(day, merge(day, running, due));
+                visited++;
+            }
+            day = running.isEmpty() ? nextBusyDay(upcoming.peek(), nextDue) : day.plusDays(1);
+        }
+        return visited;
+    }
+
+    /** Returns the first day on which the next event starts or the next deadline is due, or null. */
+    private static LocalDate nextBusyDay(EventNode nextEvent, Map.Entry<LocalDate, ?> nextDue) {
+        LocalDate eventDay = nextEvent == null ? null : nextEvent.start.toLocalDate();
+        LocalDate dueDay = nextDue == null ? null : nextDue.getKey();
+        if (eventDay == null || dueDay == null) {
+            return eventDay == null ? dueDay : eventDay;
+        }
+        return eventDay.isBefore(dueDay) ? eventDay : dueDay;
+    }
+
+    /**
+     * Merges one day's events and deadlines, each already in schedule order, into its schedule.
+     */
+    private static List<TimedTask> merge(LocalDate date, List<EventNode> onDay, NavigableSet<Entry<Deadline>> due) {
+        List<TimedTask> result = new ArrayList<>(onDay.size() + (due == null ? 0 : due.size()));
+        Iterator<Entry<Deadline>> dueIt = due == null ? null : due.iterator();
+        Entry<Deadline> nextDue = dueIt != null && dueIt.hasNext() ? dueIt.next() : null;
+        LocalDateTime dueTime = date.atTime(DEADLINE_TIME);
+        for (EventNode node : onDay) {
+            while (nextDue != null && compare(dueTime, nextDue.task(), nextDue.seq(),
+                    node.start, node.event, node.seq) < 0) {
+                result.add(nextDue.task());
+                nextDue = dueIt.hasNext() ? dueIt.next() : null;
+            }
+            result.add(node.event);
+        }
+        while (nextDue != null) {
+            result.add(nextDue.task());
+            nextDue = dueIt.hasNext() ? dueIt.next() : null;
+        }
+        return result;
+    }
+
+    private static int compare(LocalDateTime timeA, TimedTask a, long seqA, LocalDateTime timeB, TimedTask b,
+            long seqB) {
+        int cmp = timeA.compareTo(timeB);
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = description(a).compareToIgnoreCase(description(b));
+        return cmp != 0 ? cmp : Long.compare(seqA, seqB);
+    }
+
+    private static String description(Task t) {
+        return t.getDescription() == null ? "" : t.getDescription();
+    }
+
+    /**
+     * Appends, in order, every event in the subtree that overlaps {@code [dayStart, dayEnd]}.
+     */
+    private static void collect(EventNode node, LocalDateTime dayStart, LocalDateTime dayEnd, List<EventNode> out) {
+        if (node == null || node.maxEnd.isBefore(dayStart)) {
+            return;
+        }
+        collect(node.left, dayStart, dayEnd, out);
+        if (node.start.isAfter(dayEnd)) {
+            return;
+        }
+        if (!node.end.isBefore(dayStart)) {
+            out.add(node);
+        }
+        collect(node.right, dayStart, dayEnd, out);
+    }
+
+    /**
+     * Walks the events ending at or after a given time in schedule order, one at a time, skipping
+     * every subtree that ends before it.
+     */
+    private static class EventCursor {
+        private final Deque<EventNode> path = new ArrayDeque<>();
+        private final LocalDateTime notBefore;
+        private EventNode next;
+
+        EventCursor(EventNode root, LocalDateTime notBefore) {
+            this.notBefore = notBefore;
+            descendLeft(root);
+            advance();
+        }
+
+        EventNode peek() {
+            return next;
+        }
+
+        EventNode next() {
+            EventNode current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && !path.isEmpty()) {
+                EventNode node = path.pop();
+                descendLeft(node.right);
+                if (!node.end.isBefore(notBefore)) {
+                    next = node;
+                }
+            }
+        }
+
+        private void descendLeft(EventNode node) {
+            while (node != null && !node.maxEnd.isBefore(notBefore)) {
+                path.push(node);
+                node = node.left;
+            }
+        }
+    }
+
+    private static EventNode insert(EventNode root, EventNode node) {
+        if (root == null) {
+            return node;
+        }
+        if (compare(node.start, node.event, node.seq, root.start, root.event, root.seq) < 0) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        root.update();
+        return root;
+    }
+
+    private static EventNode delete(EventNode root, LocalDateTime start, Events event, long seq) {
+        if (root == null) {
+            return null;
+        }
+        if (root.seq == seq) {
+            if (root.left == null) {
+                return root.right;
+            }
+            if (root.right == null) {
+                return root.left;
+            }
+            if (root.left.priority > root.right.priority) {
+                root = rotateRight(root);
+                root.right = delete(root.right, start, event, seq);
+            } else {
+                root = rotateLeft(root);
+                root.left = delete(root.left, start, event, seq);
+            }
+        } else if (compare(start, event, seq, root.start, root.event, root.seq) < 0) {
+            root.left = delete(root.left, start, event, seq);
+        } else {
+            root.right = delete(root.right, start, event, seq);
+        }
+        root.update();
+        return root;
+    }
+
+    private static EventNode rotateRight(EventNode node) {
+        EventNode pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static EventNode rotateLeft(EventNode node) {
+        EventNode pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * Treap node holding one event and the latest end time within its subtree.
+     */
+    private static class EventNode {
+        private final Events event;
+        private final long seq;
+        private final int priority;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private EventNode left;
+        private EventNode right;
+
+        EventNode(Events event, long seq, int priority) {
+            this.event = event;
+            this.seq = seq;
+            this.priority = priority;
+            this.start = event.getStart();
+            this.end = event.getEnd();
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+        }
+    }
+}
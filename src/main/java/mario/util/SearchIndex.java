@@ -0,0 +1,174 @@
+package mario.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import mario.tasks.Task;
+
+/**
+ * Incrementally maintained trigram index over task descriptions, used to answer
+ * case-insensitive substring searches without scanning every task.
+ * <p>
+ * Every task is listed under each distinct three-character window of its lowercased
+ * description. A keyword of three or more characters can only occur in tasks that appear under
+ * all of its trigrams, so a search intersects those posting lists, starting from the shortest,
+ * and checks each task left. Shorter keywords match most of the list anyway and are answered by
+ * a scan over the cached lowercase descriptions.
+ * <p>
+ * A posting list is a sorted array of task ids rather than a set of tasks, so each entry costs
+ * four bytes plus the array's spare capacity, where a {@code LinkedHashSet} entry costs around
+ * forty. Task ids grow in list order, so adding a task appends to its lists, results come back
+ * in list order, and lists are intersected by merging them in id order.
+ */
+class SearchIndex {
+    private final Map<Integer, Entry> entries = new LinkedHashMap<>();
+    private final Map<Long, Posting> postings = new HashMap<>();
+
+    /**
+     * Adds a task to the index. Tasks must be added in list order, so with increasing ids.
+     *
+     * @param task the task to index.
+     */
+    void add(Task task) {
+        String text = task.getDescription().toLowerCase();
+        entries.put(task.getId(), new Entry(task, text));
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            postings.computeIfAbsent(trigram(text, i), k -> new Posting()).append(task.getId());
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task the task to remove.
+     */
+    void remove(Task task) {
+        Entry entry = entries.remove(task.getId());
+        if (entry == null) {
+            return;
+        }
+        String text = entry.lowered;
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            Long key = trigram(text, i);
+            Posting posting = postings.get(key);
+            if (posting != null && posting.remove(task.getId()) && posting.size == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the indexed tasks whose description contains the keyword, ignoring case.
+     *
+     * @param keyword the string to search for.
+     * @return the matching tasks in list order.
+     */
+    List<Task> find(String keyword) {
+        String needle = keyword.toLowerCase();
+        List<Task> matches = new ArrayList<>();
+        if (needle.length() < 3) {
+            for (Entry entry : entries.values()) {
+                if (entry.lowered.contains(needle)) {
+                    matches.add(entry.task);
+                }
+            }
+            return matches;
+        }
+
+        List<Posting> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= needle.length(); i++) {
+            Posting posting = postings.get(trigram(needle, i));
+            if (posting == null) {
+                return matches;
+            }
+            if (!lists.contains(posting)) {
+                lists.add(posting);
+            }
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+
+        Posting shortest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        candidates:
+        for (int c = 0; c < shortest.size; c++) {
+            int id = shortest.ids[c];
+            for (int l = 1; l < lists.size(); l++) {
+                Posting other = lists.get(l);
+                int at = other.seek(id, cursors[l]);
+                cursors[l] = at;
+                if (at == other.size) {
+                    break candidates;
+                }
+                if (other.ids[at] != id) {
+                    continue candidates;
+                }
+            }
+            Entry entry = entries.get(id);
+            if (entry.lowered.contains(needle)) {
+                matches.add(entry.task);
+            }
+        }
+        return matches;
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) text.charAt(at) << 32) | ((long) text.charAt(at + 1) << 16) | text.charAt(at + 2);
+    }
+
+    /** An indexed task with its lowercased description. */
+    private record Entry(Task task, String lowered) {
+    }
+
+    /** Sorted, growable array of the ids of the tasks listed under one trigram. */
+    private static class Posting {
+        private int[] ids = new int[2];
+        private int size;
+
+        /** Appends an id, which must be larger than every id already in the list. */
+        void append(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        /** Removes an id, returning false if it was not in the list. */
+        boolean remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            if (size > 0 && size <= ids.length / 4) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            return true;
+        }
+
+        /**
+         * Returns the position of the first id at or after {@code from} that is not less than
+         * {@code id}, or {@code size} if there is none. Gallops ahead before searching, so merging
+         * a short list into a long one skips most of the long one.
+         */
+        int seek(int id, int from) {
+            int step = 1;
+            int hi = from;
+            while (hi < size && ids[hi] < id) {
+                from = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int at = Arrays.binarySearch(ids, from, Math.min(hi + 1, size), id);
+            return at >= 0 ? at : -at - 1;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package mario.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a rolling set of point-in-time snapshots of the serialized task list.
+ * <p>
+ * Snapshot contents are split into content-defined blocks using a Gear rolling hash, so an
+ * edit only changes the blocks around it and every other block boundary stays where it was.
+ * Blocks are stored once under their SHA-256 name and each version is a small manifest listing
+ * its blocks in order. Taking a snapshot after a few edits therefore writes only the changed
+ * blocks plus the manifest, while the oldest versions beyond the retention limit are pruned.
+ * <p>
+ * The store reads every manifest and lists the block directory once, on first use, and from then
+ * on keeps the retained manifests and a reference count per block in memory, so a snapshot or a
+ * prune touches only the blocks it adds or drops. Blocks left behind by an interrupted prune are
+ * deleted on that first scan. It therefore assumes it is the only writer to its directory.
+ * Restoring checks every block against its SHA-256 name, so a damaged block fails the restore
+ * instead of returning corrupt content.
+ */
+public class SnapshotStore {
+    private static final int MIN_BLOCK_SIZE = 1024;
+    private static final int MAX_BLOCK_SIZE = 16 * 1024;
+    /** Top 12 bits of the rolling hash, giving an average block size of about 4 KiB. */
+    private static final long BOUNDARY_MASK = 0xFFF0_0000_0000_0000L;
+    private static final long[] GEAR = new long[256];
+    private static final String MANIFEST_SUFFIX = ".manifest";
+    private static final String BLOCKS_DIR = "blocks";
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x6D6172696FL);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    private final Path root;
+    private final Path blocks;
+    private final int retained;
+    /** Block names of each retained version, oldest first; null until the directory is first read. */
+    private TreeMap<Integer, List<String>> manifests;
+    /** Number of references from retained manifests to each stored block. */
+    private final Map<String, Integer> references = new HashMap<>();
+
+    /**
+     * Creates a snapshot store rooted at the given directory.
+     *
+     * @param root the directory holding manifests and blocks; created if missing.
+     * @param retained the number of most recent versions to keep restorable.
+     */
+    public SnapshotStore(Path root, int retained) {
+        assert retained > 0 : "At least one snapshot version must be retained";
+        this.root = root;
+        this.blocks = root.resolve(BLOCKS_DIR);
+        this.retained = retained;
+    }
+
+    /**
+     * Records a new snapshot version of the given content.
+     *
+     * @param content the serialized task list.
+     * @return the version number assigned to the new snapshot.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    public synchronized int snapshot(byte[] content) throws IOException {
+        loadIndex();
+        Files.createDirectories(blocks);
+        StringBuilder manifest = new StringBuilder();
+        List<String> names = new ArrayList<>();
+        int start = 0;
+        while (start < content.length) {
+            int end = nextBoundary(content, start);
+            String name = writeBlock(content, start, end);
+            manifest.append(name).append(' ').append(end - start).append('\n');
+            names.add(name);
+            start = end;
+        }
+
+        int version = manifests.isEmpty() ? 1 : manifests.lastKey() + 1;
+        writeAtomically(manifestPath(version), manifest.toString().getBytes(StandardCharsets.UTF_8));
+        manifests.put(version, names);
+        for (String name : names) {
+            references.merge(name, 1, Integer::sum);
+        }
+        prune();
+        return version;
+    }
+
+    /**
+     * Reassembles the content of a previously recorded snapshot.
+     *
+     * @param version a version number returned by {@link #listVersions()}.
+     * @return the snapshot content.
+     * @throws IOException if the version does not exist, or a block is missing or does not match its hash.
+     */
+    public synchronized byte[] restore(int version) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (String name : readManifest(version)) {
+            byte[] block = Files.readAllBytes(blocks.resolve(name));
+            if (!toHex(sha256().digest(block)).equals(name)) {
+                throw new IOException("Snapshot block " + name + " of version " + version + " is damaged");
+            }
+            out.write(block);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the versions currently available for restore, oldest first.
+     *
+     * @return the sorted list of version numbers (maybe empty).
+     * @throws IOException if the snapshot directory cannot be listed.
+     */
+    public synchronized List<Integer> listVersions() throws IOException {
+        loadIndex();
+        return new ArrayList<>(manifests.keySet());
+    }
+
+    /**
+     * Reads every manifest and counts the references to each block, the first time it is called.
+     * Blocks no manifest refers to are deleted, as are manifests beyond the retention limit.
+     */
+    private void loadIndex() throws IOException {
+        if (manifests != null) {
+            return;
+        }
+        TreeMap<Integer, List<String>> found = new TreeMap<>();
+        if (Files.isDirectory(root)) {
+            try (Stream<Path> files = Files.list(root)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String n = file.getFileName().toString();
+                    if (n.endsWith(MANIFEST_SUFFIX)) {
+                        int version = Integer.parseInt(n.substring(0, n.length() - MANIFEST_SUFFIX.length()));
+                        found.put(version, readManifest(version));
+                    }
+                }
+            }
+        }
+        manifests = found;
+        for (List<String> names : manifests.values()) {
+            for (String name : names) {
+                references.merge(name, 1, Integer::sum);
+            }
+        }
+        prune();
+        if (Files.isDirectory(blocks)) {
+            try (Stream<Path> files = Files.list(blocks)) {
+                for (Path block : (Iterable<Path>) files::iterator) {
+                    if (!references.containsKey(block.getFileName().toString())) {
+                        Files.deleteIfExists(block);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the end of the block starting at {@code start}: the first position past the minimum
+     * block size where the rolling hash hits the boundary mask, capped at the maximum block size.
+     */
+    static int nextBoundary(byte[] content, int start) {
+        int limit = Math.min(content.length, start + MAX_BLOCK_SIZE);
+        int i = Math.min(limit, start + MIN_BLOCK_SIZE);
+        long hash = 0;
+        for (; i < limit; i++) {
+            hash = (hash << 1) + GEAR[content[i] & 0xFF];
+            if ((hash & BOUNDARY_MASK) == 0) {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    private String writeBlock(byte[] content, int start, int end) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(content, start, end - start);
+        String name = toHex(digest.digest());
+        Path target = blocks.resolve(name);
+        if (!references.containsKey(name)) {
+            byte[] block = new byte[end - start];
+            System.arraycopy(content, start, block, 0, block.length);
+            writeAtomically(target, block);
+        }
+        return name;
+    }
+
+    private List<String> readManifest(int version) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (String line : Files.readAllLines(manifestPath(version), StandardCharsets.UTF_8)) {
+            int space = line.indexOf(' ');
+            if (space > 0) {
+                names.add(line.substring(0, space));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Drops manifests beyond the retention limit and deletes the blocks that were referred to by
+     * them alone. Each manifest is deleted before its blocks, so an interrupted prune leaves only
+     * unreferenced blocks, which the next {@link #loadIndex()} cleans up.
+     */
+    private void prune() throws IOException {
+        while (manifests.size() > retained) {
+            Map.Entry<Integer, List<String>> oldest = manifests.pollFirstEntry();
+            Files.deleteIfExists(manifestPath(oldest.getKey()));
+            for (String name : oldest.getValue()) {
+                if (references.merge(name, -1, Integer::sum) == 0) {
+                    references.remove(name);
+                    Files.deleteIfExists(blocks.resolve(name));
+                }
+            }
+        }
+    }
+
+    private Path manifestPath(int version) {
+        return root.resolve(String.format("%06d%s", version, MANIFEST_SUFFIX));
+    }
+
+    private static void writeAtomically(Path target, byte[] bytes) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(tmp, bytes);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
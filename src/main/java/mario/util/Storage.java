@@ -1,14 +1,27 @@
 package mario.util;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
 
 import mario.tasks.*;
 
@@ -16,10 +29,90 @@ import mario.tasks.*;
  * Handles persistence of tasks to and from the {@code data/} directory.
  * <p>
  * Ensures the data folder exists, and reads/writes a plain-text file that
- * represents tasks line-by-line. Deadlines are stored with ISO-8601 dates.
+ * represents tasks line-by-line, each prefixed with the task's id. Deadlines are stored with
+ * ISO-8601 dates.
+ * <p>
+ * Mutations are not written by rewriting the whole file. Instead, each one is appended
+ * as a single record to a journal file next to the snapshot, and {@link #load()} replays
+ * the journal on top of the snapshot. Records are written behind the caller's back by a
+ * {@link WriteBehindJournal}, which commits bursts of them together; {@link #flush()} waits
+ * for everything appended so far to reach the disk. The journal is folded back into the snapshot by
+ * {@link #save(ArrayList)} once it grows past {@value #COMPACTION_THRESHOLD} records.
+ * <p>
+ * Every full save also records a point-in-time snapshot in a {@link SnapshotStore}, keeping the
+ * last {@value #SNAPSHOTS_RETAINED} versions restorable.
+ * <p>
+ * The snapshot is written either in the text format or in the compact {@link BinaryTaskFormat}.
+ * A binary storage that finds only a text file migrates it on the first {@link #load()}.
+ * <p>
+ * Saves never modify the storage file in place: the new content is written to a temporary file,
+ * forced to disk and renamed over the old one. Each save has a generation number, recorded in
+ * the file and at the start of the journal that follows it, so a journal left behind by a crash
+ * during a save is recognised as already folded in. The text file ends with a CRC32C footer,
+ * the binary format carries its own, and every journal record is prefixed with its CRC32C.
+ * Damage found by {@link #load()} is reported through {@link #getLoadProblems()}, and the
+ * damaged file is copied aside before anything can overwrite it.
+ * <p>
+ * Loading, saving and journal appends are synchronized on the storage instance, so callers that
+ * need a mutation and its journal record to happen atomically can synchronize on it as well.
+ * Each of them is timed, and the bytes written counted, in the storage's {@link Metrics}.
  */
 public class Storage {
+    /**
+     * On-disk format of the snapshot file.
+     */
+    public enum Format {
+        /** Human-readable lines in the same format as the task list display. */
+        TEXT,
+        /** The compact {@link BinaryTaskFormat}, stored next to the text file with a {@code .bin} extension. */
+        BINARY;
+
+        /**
+         * Returns the format with the given case-insensitive name, or {@link #TEXT} if there is none.
+         *
+         * @param name the format name, e.g. {@code "binary"}; may be null.
+         * @return the matching format.
+         */
+        public static Format fromName(String name) {
+            return "binary".equalsIgnoreCase(name) ? BINARY : TEXT;
+        }
+    }
+
+    /** Number of journal records after which the journal should be compacted into the snapshot. */
+    public static final int COMPACTION_THRESHOLD = 1000;
+    /** Number of historical snapshot versions kept restorable. */
+    public static final int SNAPSHOTS_RETAINED = 10;
+    /** Default time a journal record may wait for others to be committed with it. */
+    public static final long DEFAULT_MAX_COMMIT_DELAY_MILLIS = 5;
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String SNAPSHOTS_SUFFIX = ".snapshots";
+    private static final String BINARY_EXTENSION = ".bin";
+    private static final String MIGRATED_SUFFIX = ".migrated";
+    private static final char ADD = 'A';
+    private static final char MARK = 'M';
+    private static final char UNMARK = 'U';
+    private static final char DELETE = 'D';
+    private static final char GENERATION = 'G';
+    /** Start of the checksum line that ends a text storage file. */
+    static final String FOOTER_PREFIX = "#crc32c ";
+    private static final int MAX_FOOTER_LENGTH = 64;
+
+    private final Format format;
     private final File file;
+    private final File textFile;
+    private final File journal;
+    private final SnapshotStore snapshots;
+    private final WriteBehindJournal journalWriter;
+    private int journalRecords;
+    private boolean isBatching;
+    private int deferredRecords;
+    private long generation;
+    /** Whether the last load found the storage file damaged, so its generation cannot be trusted. */
+    private boolean isLoadedFileDamaged;
+    private boolean isJournalStarted;
+    private final List<String> loadProblems = new ArrayList<>();
+    private final Metrics metrics = new Metrics();
 
     /**
      * Create a new instance that takes in a file name and reads and writes from the data directory.
@@ -27,74 +120,613 @@ public class Storage {
      * @param fileName the name of the file used for read and write.
      */
     public Storage(String fileName) {
+        this(fileName, Format.TEXT);
+    }
+
+    /**
+     * Create a new instance that reads and writes the given file in the given format.
+     * In {@link Format#BINARY} the file name's extension is replaced with {@code .bin}.
+     *
+     * @param fileName the name of the text file in the data directory.
+     * @param format the format used for the snapshot file.
+     */
+    public Storage(String fileName, Format format) {
+        this(fileName, format, DEFAULT_MAX_COMMIT_DELAY_MILLIS);
+    }
+
+    /**
+     * Create a new instance that reads and writes the given file in the given format, committing
+     * journal records in groups gathered over at most the given delay.
+     *
+     * @param fileName the name of the text file in the data directory, or its path relative to it.
+     * @param format the format used for the snapshot file.
+     * @param maxCommitDelayMillis how long a journal record may wait for others to join its commit.
+     */
+    public Storage(String fileName, Format format, long maxCommitDelayMillis) {
         Path folder = Paths.get("data");
+        Path filePath = folder.resolve(fileName);
         try {
-            if (!Files.exists(folder)) {
-                Files.createDirectories(folder);
+            if (!Files.exists(filePath.getParent())) {
+                Files.createDirectories(filePath.getParent());
             }
         } catch (IOException e) {
             throw new RuntimeException("Could not create data directory", e);
         }
-        Path filePath = folder.resolve(fileName);
-        this.file = filePath.toFile();
+        this.format = format;
+        this.textFile = filePath.toFile();
+        this.file = format == Format.BINARY ? folder.resolve(toBinaryName(fileName)).toFile() : textFile;
+        this.journal = journalFor(file);
+        this.journalWriter = new WriteBehindJournal(journal, maxCommitDelayMillis);
+        this.snapshots = new SnapshotStore(file.toPath().resolveSibling(file.getName() + SNAPSHOTS_SUFFIX),
+                SNAPSHOTS_RETAINED);
     }
 
     /**
-     * Writes all tasks to the storage file in a line-based format.
+     * Creates storage for the given file configured from system properties: {@code mario.storage.format}
+     * ({@code text} or {@code binary}) and {@code mario.storage.maxCommitDelayMillis}.
+     *
+     * @param fileName the name of the text file in the data directory, or its path relative to it.
+     * @return the storage.
+     */
+    public static Storage fromSystemProperties(String fileName) {
+        return new Storage(fileName, Format.fromName(System.getProperty("mario.storage.format")),
+                Long.getLong("mario.storage.maxCommitDelayMillis", DEFAULT_MAX_COMMIT_DELAY_MILLIS));
+    }
+
+    /**
+     * Atomically replaces the storage file with all tasks, clears the journal and records the
+     * result as a new snapshot version.
      * <p>
-     * {@link mario.tasks.Deadline} entries are serialized using their
+     * In the text format, {@link mario.tasks.Deadline} entries are serialized using their
      * {@code toStorageString()} (ISO-8601 date) while other tasks use
      * their {@code toString()} representation.
      *
      * @param list the tasks to persist; order is preserved.
      * @throws IOException if an I/O error occurs while writing.
      */
-    public void save(ArrayList<Task> list) throws IOException {
-        FileWriter fw = new FileWriter(file);
-        try {
-            for (Task t : list) {
-                if (t instanceof TimedTask) {
-                    fw.write(((TimedTask) t).toStorageString());
-                } else {
-                    fw.write(t.toString());
+    public synchronized void save(ArrayList<Task> list) throws IOException {
+        long start = System.nanoTime();
+        byte[] content = encode(list, generation + 1);
+        DurableFiles.writeAtomically(file.toPath(), content);
+        generation++;
+        clearJournal();
+        deferredRecords = 0;
+        snapshots.snapshot(content);
+        metrics.recordSave(System.nanoTime() - start, content.length);
+    }
 
-                }
-                fw.write(System.lineSeparator());
-            }
-        } finally {
-            fw.close();
+    /**
+     * Starts deferring persistence: until {@link #endBatch(List)}, mutations are only counted
+     * instead of being appended to the journal, and the batch is persisted by a single save.
+     * Changes made during a batch are lost if the process dies before it ends.
+     */
+    public synchronized void beginBatch() {
+        isBatching = true;
+    }
+
+    /**
+     * Ends a batch started with {@link #beginBatch()}, saving the given tasks in one write if any
+     * mutation was deferred.
+     *
+     * @param tasks the full task list after the batch.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    public synchronized void endBatch(List<Task> tasks) throws IOException {
+        isBatching = false;
+        if (deferredRecords > 0) {
+            save(new ArrayList<>(tasks));
+        }
+    }
+
+    /**
+     * Returns the snapshot versions that can currently be restored, oldest first.
+     *
+     * @return the available version numbers.
+     * @throws IOException if the snapshot directory cannot be read.
+     */
+    public List<Integer> listSnapshots() throws IOException {
+        return snapshots.listVersions();
+    }
+
+    /**
+     * Reconstructs the task list as it was when the given snapshot version was recorded.
+     * The current storage file is left untouched; call {@link #save(ArrayList)} to roll back.
+     *
+     * @param version a version returned by {@link #listSnapshots()}.
+     * @return the tasks held in that snapshot.
+     * @throws IOException if the snapshot cannot be read.
+     */
+    public ArrayList<Task> restoreSnapshot(int version) throws IOException {
+        byte[] content = snapshots.restore(version);
+        if (format == Format.BINARY) {
+            return BinaryTaskFormat.decode(new ByteArrayInputStream(content));
         }
+        List<String> unreadableLines = new ArrayList<>();
+        ArrayList<Task> tasks = MappedTaskLoader.parse(ByteBuffer.wrap(content), unreadableLines);
+        if (!unreadableLines.isEmpty()) {
+            throw new IOException("Snapshot " + version + " has unreadable lines, such as: " + unreadableLines.get(0));
+        }
+        return tasks;
+    }
+
+    /**
+     * Appends a record for a newly added task to the journal.
+     *
+     * @param task the task that was appended to the end of the list.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    public synchronized void appendAdd(Task task) throws IOException {
+        if (isDeferred()) {
+            return;
+        }
+        appendRecord(ADD + " " + toStorageLine(task));
     }
 
     /**
-     * Loads tasks from the storage file, if present.
+     * Appends a record for a task being marked as done to the journal.
+     *
+     * @param task the task that was changed.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    public synchronized void appendMark(Task task) throws IOException {
+        if (isDeferred()) {
+            return;
+        }
+        appendRecord(MARK + " #" + task.getId());
+    }
+
+    /**
+     * Appends a record for a task being marked as not done to the journal.
+     *
+     * @param task the task that was changed.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    public synchronized void appendUnmark(Task task) throws IOException {
+        if (isDeferred()) {
+            return;
+        }
+        appendRecord(UNMARK + " #" + task.getId());
+    }
+
+    /**
+     * Appends a record for a deleted task to the journal.
+     *
+     * @param task the task that was deleted.
+     * @throws IOException if an I/O error occurs while writing.
+     */
+    public synchronized void appendDelete(Task task) throws IOException {
+        if (isDeferred()) {
+            return;
+        }
+        appendRecord(DELETE + " #" + task.getId());
+    }
+
+    /**
+     * Returns true once the journal holds enough records that it should be folded into
+     * the snapshot with {@link #save(ArrayList)}.
+     */
+    public synchronized boolean isCompactionDue() {
+        return journalRecords >= COMPACTION_THRESHOLD;
+    }
+
+    /**
+     * Waits until every journaled mutation has been written to disk.
+     * Mutations are otherwise written in the background, shortly after they are appended.
+     *
+     * @throws IOException if writing the journal failed.
+     */
+    public void flush() throws IOException {
+        long start = System.nanoTime();
+        journalWriter.flush();
+        metrics.addPersistNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Returns the latencies and counters of this storage and of the chatbot using it.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Loads tasks from the storage file, if present, and replays any journaled mutations.
      * <p>
-     * Each line is parsed back into a concrete task using
-     * {@link mario.util.Parser#parseStorageLine(String)}. Missing files are treated as empty.
+     * Text files are scanned as raw bytes by {@link MappedTaskLoader}, which reads each
+     * line the same way as {@link mario.util.Parser#parseStorageLine(String)}. Missing files are
+     * treated as empty.
      *
      * @return a list containing all tasks found in the file (maybe empty).
      * @throws IOException if an I/O error occurs while reading.
      */
-    public ArrayList<Task> load() throws IOException {
+    public synchronized ArrayList<Task> load() throws IOException {
+        long start = System.nanoTime();
+        ArrayList<Task> tasks = loadTasks();
+        metrics.recordLoad(System.nanoTime() - start, tasks.size());
+        return tasks;
+    }
+
+    private ArrayList<Task> loadTasks() throws IOException {
+        loadProblems.clear();
+        isLoadedFileDamaged = false;
+        if (format == Format.BINARY && !file.exists() && textFile.exists()) {
+            return migrateFromText();
+        }
+
         ArrayList<Task> tasks = new ArrayList<>();
+        generation = 0;
+        if (file.exists() && format == Format.BINARY) {
+            tasks = loadBinary();
+        } else if (file.exists()) {
+            tasks = loadText(file);
+        }
+
+        journalRecords = replayJournal(journal, tasks);
+        isJournalStarted = journal.exists();
+        return tasks;
+    }
 
-        if (!file.exists()) {
-            return tasks;
+    /**
+     * Returns the problems found by the last {@link #load()}, such as damaged files or journal
+     * records that had to be skipped.
+     *
+     * @return descriptions of the problems; empty if everything loaded cleanly.
+     */
+    public synchronized List<String> getLoadProblems() {
+        return new ArrayList<>(loadProblems);
+    }
+
+    private ArrayList<Task> loadBinary() throws IOException {
+        BinaryTaskFormat.Contents contents;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            contents = BinaryTaskFormat.read(in);
+        } catch (IOException e) {
+            isLoadedFileDamaged = true;
+            reportDamaged(file, e.getMessage());
+            return new ArrayList<>();
+        }
+        if (!contents.isIntact()) {
+            isLoadedFileDamaged = true;
+            reportDamaged(file, "checksum mismatch");
+        }
+        generation = contents.generation();
+        return contents.tasks();
+    }
+
+    /**
+     * Loads a text storage file, skipping lines that cannot be read; the file is then reported
+     * as damaged once, along with a checksum mismatch if there is one.
+     */
+    private ArrayList<Task> loadText(File textSnapshot) throws IOException {
+        TextFooter footer = readTextFooter(textSnapshot.toPath());
+        if (footer != null) {
+            generation = footer.generation();
         }
+        List<String> unreadableLines = new ArrayList<>();
+        ArrayList<Task> tasks = MappedTaskLoader.load(textSnapshot.toPath(), unreadableLines);
 
-        try (FileReader fr = new FileReader(file);
+        List<String> details = new ArrayList<>();
+        if (footer != null && !footer.isIntact()) {
+            details.add("checksum mismatch");
+        }
+        if (!unreadableLines.isEmpty()) {
+            details.add(unreadableLines.size() + (unreadableLines.size() == 1 ? " line" : " lines")
+                    + " could not be read and " + (unreadableLines.size() == 1 ? "was" : "were")
+                    + " skipped, such as: " + unreadableLines.get(0));
+        }
+        if (!details.isEmpty()) {
+            isLoadedFileDamaged = true;
+            reportDamaged(textSnapshot, String.join("; ", details));
+        }
+        return tasks;
+    }
+
+    /**
+     * Generation and integrity recorded by the footer line of a text storage file.
+     */
+    private record TextFooter(long generation, boolean isIntact) {
+    }
+
+    /**
+     * Reads and verifies the footer of a text storage file, or returns null if the file has
+     * none, as files written before footers were introduced do.
+     */
+    private static TextFooter readTextFooter(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int tailLength = (int) Math.min(size, MAX_FOOTER_LENGTH);
+            ByteBuffer tail = ByteBuffer.allocate(tailLength);
+            while (tail.hasRemaining() && channel.read(tail, size - tailLength + tail.position()) > 0) {
+                // Keep reading until the tail is full
+            }
+            String text = new String(tail.array(), StandardCharsets.ISO_8859_1).stripTrailing();
+            int lineStart = text.lastIndexOf('\n') + 1;
+            if (!text.startsWith(FOOTER_PREFIX, lineStart)) {
+                return null;
+            }
+            String[] fields = text.substring(lineStart + FOOTER_PREFIX.length()).split(" ");
+            long footerOffset = size - tailLength + lineStart;
+
+            CRC32C crc = new CRC32C();
+            ByteBuffer chunk = ByteBuffer.allocateDirect(1 << 16);
+            long position = 0;
+            while (position < footerOffset) {
+                chunk.clear().limit((int) Math.min(chunk.capacity(), footerOffset - position));
+                int read = channel.read(chunk, position);
+                if (read < 0) {
+                    break;
+                }
+                chunk.flip();
+                crc.update(chunk);
+                position += read;
+            }
+            try {
+                boolean isIntact = fields.length == 2 && DurableFiles.toHex(crc.getValue()).equals(fields[0]);
+                return new TextFooter(Long.parseLong(fields[fields.length - 1]), isIntact);
+            } catch (NumberFormatException e) {
+                return new TextFooter(0, false);
+            }
+        }
+    }
+
+    /**
+     * Keeps a copy of a damaged file and records the problem for {@link #getLoadProblems()}.
+     */
+    private void reportDamaged(File damaged, String detail) {
+        String problem = damaged.getName() + " is damaged (" + detail + ")";
+        try {
+            Path backup = DurableFiles.backUpCorrupt(damaged.toPath());
+            loadProblems.add(problem + "; a copy was kept as " + backup.getFileName());
+        } catch (IOException e) {
+            loadProblems.add(problem + " and could not be backed up: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the text file with its journal, rewrites it in the binary format and
+     * sets the text file aside so it is not picked up again.
+     */
+    private ArrayList<Task> migrateFromText() throws IOException {
+        ArrayList<Task> tasks = loadText(textFile);
+        File textJournal = journalFor(textFile);
+        replayJournal(textJournal, tasks);
+
+        save(tasks);
+        Files.deleteIfExists(textJournal.toPath());
+        Files.move(textFile.toPath(), textFile.toPath().resolveSibling(textFile.getName() + MIGRATED_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING);
+        return tasks;
+    }
+
+    private byte[] encode(List<Task> list, long saveGeneration) {
+        if (format == Format.BINARY) {
+            return BinaryTaskFormat.encode(list, saveGeneration);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Task t : list) {
+            sb.append(toStorageLine(t)).append(System.lineSeparator());
+        }
+        byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] footer = (FOOTER_PREFIX + DurableFiles.crc32cHex(body, 0, body.length) + " " + saveGeneration
+                + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII);
+        byte[] content = Arrays.copyOf(body, body.length + footer.length);
+        System.arraycopy(footer, 0, content, body.length, footer.length);
+        return content;
+    }
+
+    /**
+     * Replays the journal onto the loaded tasks. Records name tasks by id ({@code M #12}).
+     * A journal that starts with an older generation than the loaded file was already folded
+     * into it by a save that crashed before removing the journal, and is discarded. Any other
+     * mismatch, or one against a damaged file, means the journal's changes may be missing from
+     * the file, so a copy of the journal is kept before it is discarded. Records that cannot be
+     * read are skipped and reported.
+     */
+    private int replayJournal(File journalFile, ArrayList<Task> tasks) throws IOException {
+        int nextId = assignIds(tasks);
+        if (!journalFile.exists()) {
+            return 0;
+        }
+        Map<Integer, Task> byId = new HashMap<>();
+        for (Task t : tasks) {
+            byId.put(t.getId(), t);
+        }
+        int records = 0;
+        int damaged = 0;
+        try (FileReader fr = new FileReader(journalFile, StandardCharsets.UTF_8);
              BufferedReader br = new BufferedReader(fr)) {
             String line;
             while ((line = br.readLine()) != null) {
-                Task task = Parser.parseStorageLine(line);
-                if (task != null) {
+                if (hasChecksum(line)) {
+                    String record = line.substring(9);
+                    if (!line.startsWith(checksum(record))) {
+                        damaged++;
+                        continue;
+                    }
+                    line = record;
+                }
+                if (line.length() < 3) {
+                    continue;
+                }
+                String payload = line.substring(2);
+                if (line.charAt(0) == GENERATION) {
+                    if (!payload.equals(Long.toString(generation))) {
+                        discardForeignJournal(journalFile, payload);
+                        return 0;
+                    }
+                    continue;
+                }
+                records++;
+                if (line.charAt(0) == ADD) {
+                    Task task;
+                    try {
+                        task = Parser.parseStorageLine(payload);
+                    } catch (RuntimeException e) {
+                        task = null;
+                    }
+                    if (task == null) {
+                        damaged++;
+                        continue;
+                    }
+                    if (task.getId() < nextId) {
+                        task.setId(nextId);
+                    }
+                    nextId = task.getId() + 1;
                     tasks.add(task);
+                    byId.put(task.getId(), task);
+                    continue;
+                }
+                Task target = findTarget(payload, byId);
+                if (target == null) {
+                    continue;
+                }
+                switch (line.charAt(0)) {
+                case MARK:
+                    target.markDone();
+                    break;
+                case UNMARK:
+                    target.markUndone();
+                    break;
+                case DELETE:
+                    tasks.remove(target);
+                    byId.remove(target.getId());
+                    break;
+                default:
+                    // Unknown record, most likely a torn write; skip it
                 }
             }
         }
+        if (damaged > 0) {
+            reportDamaged(journalFile, damaged + (damaged == 1 ? " change" : " changes") + " could not be replayed");
+        }
+        return records;
+    }
 
-        return tasks;
+    /**
+     * Deletes a journal that was started after a different save than the one just loaded,
+     * keeping a copy first unless it is one that a later save already folded in.
+     */
+    private void discardForeignJournal(File journalFile, String journalGeneration) throws IOException {
+        long started;
+        try {
+            started = Long.parseLong(journalGeneration);
+        } catch (NumberFormatException e) {
+            started = Long.MAX_VALUE;
+        }
+        if (isLoadedFileDamaged || started >= generation) {
+            String fileState = isLoadedFileDamaged ? "is damaged" : "is from save " + generation;
+            reportDamaged(journalFile, "its changes follow save " + journalGeneration + " but the tasks file "
+                    + fileState + ", so they were not replayed");
+        }
+        Files.delete(journalFile.toPath());
+    }
+
+    /** Resolves a {@code #id} record payload, or returns null. */
+    private static Task findTarget(String payload, Map<Integer, Task> byId) {
+        if (!payload.startsWith("#")) {
+            return null;
+        }
+        try {
+            return byId.get(Integer.parseInt(payload.substring(1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gives every task without a usable id the next free one, the same way {@link TaskManager}
+     * would when the tasks are added to it, so journal records written against those ids match.
+     *
+     * @return the next id to assign.
+     */
+    private static int assignIds(List<Task> tasks) {
+        int nextId = 1;
+        for (Task t : tasks) {
+            if (t.getId() < nextId) {
+                t.setId(nextId);
+            }
+            nextId = t.getId() + 1;
+        }
+        return nextId;
+    }
+
+    /** Counts a mutation made during a batch, returning true if its journal record should be skipped. */
+    private boolean isDeferred() {
+        if (isBatching) {
+            deferredRecords++;
+        }
+        return isBatching;
+    }
+
+    private void appendRecord(String record) throws IOException {
+        long start = System.nanoTime();
+        if (!isJournalStarted) {
+            appendLine(withChecksum(GENERATION + " " + generation));
+            isJournalStarted = true;
+        }
+        appendLine(withChecksum(record));
+        journalRecords++;
+        metrics.addPersistNanos(System.nanoTime() - start);
+    }
+
+    private void appendLine(String line) throws IOException {
+        journalWriter.append(line);
+        metrics.addBytesWritten(utf8Length(line) + System.lineSeparator().length());
+    }
+
+    private static int utf8Length(String text) {
+        int length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800 && !Character.isSurrogate(c)) {
+                length += 2;
+            } else if (c >= 0x80) {
+                // Two bytes for most characters, and four for each surrogate pair
+                length += 1;
+            }
+        }
+        return length;
+    }
+
+    private static String withChecksum(String record) {
+        return checksum(record) + " " + record;
     }
 
+    private static String checksum(String record) {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        return DurableFiles.crc32cHex(bytes, 0, bytes.length);
+    }
 
+    /** Returns true if the line starts with eight hex digits and a space, as checksummed records do. */
+    private static boolean hasChecksum(String line) {
+        if (line.length() < 9 || line.charAt(8) != ' ') {
+            return false;
+        }
+        for (int i = 0; i < 8; i++) {
+            if (Character.digit(line.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void clearJournal() throws IOException {
+        journalWriter.close();
+        Files.deleteIfExists(journal.toPath());
+        isJournalStarted = false;
+        journalRecords = 0;
+    }
+
+    private static File journalFor(File snapshotFile) {
+        return new File(snapshotFile.getParentFile(), snapshotFile.getName() + JOURNAL_SUFFIX);
+    }
+
+    private static String toBinaryName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return (dot > 0 ? fileName.substring(0, dot) : fileName) + BINARY_EXTENSION;
+    }
+
+    private static String toStorageLine(Task t) {
+        String line = t instanceof TimedTask ? ((TimedTask) t).toStorageString() : t.toString();
+        return t.getId() == Task.NO_ID ? line : "#" + t.getId() + " " + line;
+    }
 }
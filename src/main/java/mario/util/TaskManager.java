@@ -1,44 +1,218 @@
 package mario.util;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import mario.tasks.*;
 
 
 /**
  * TaskManager encapsulates the list of tasks and provides operations to mutate it.
+ * <p>
+ * Every task is given a stable, monotonically increasing id when it is added, and can be
+ * looked up by id through a hash map. Deleting a task only leaves a tombstone in its slot, so
+ * nothing is shifted; a {@link FenwickTree} over the live slots translates list positions to
+ * slots, and the slots are compacted once tombstones outnumber live tasks.
+ * <p>
+ * A TaskManager is safe to share between threads. The list and its indexes are guarded by a
+ * single read-write lock, since every mutation touches all of them: lookups, {@code list},
+ * {@code find} and {@code view} share the read lock and run in parallel, while additions,
+ * (un)marking and deletions take the write lock. Methods returning several tasks return a
+ * snapshot taken under the read lock, so callers can iterate it without holding any lock.
  */
 public class TaskManager {
-    private final List<Task> tasks = new ArrayList<>();
+    private static final int MIN_COMPACTION_TOMBSTONES = 64;
+
+    private final List<Task> slots = new ArrayList<>();
+    private final FenwickTree liveSlots = new FenwickTree();
+    private final Map<Integer, Task> byId = new HashMap<>();
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final ScheduleIndex scheduleIndex = new ScheduleIndex();
+    private final Lock readLock;
+    private final Lock writeLock;
+    private int nextId = 1;
 
     public TaskManager(int size) {
         // size ignored but kept to preserve existing constructor signature
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
     }
 
     /**
      * Marks the task at the given index as complete.
      *
      * @param index the position of the {@link mario.tasks.Task} in the list (0-based).
+     * @return the task that was marked.
      */
-    public void markDone(int index) {
-        tasks.get(index).markDone();
+    public Task markDone(int index) {
+        writeLock.lock();
+        try {
+            Task task = slots.get(liveSlots.select(checkIndex(index)));
+            task.markDone();
+            return task;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
      * Marks the task at the given index as incomplete
      *
      * @param index the position of the {@link mario.tasks.Task} in the list (0-based).
+     * @return the task that was unmarked.
+     */
+    public Task markUndone(int index) {
+        writeLock.lock();
+        try {
+            Task task = slots.get(liveSlots.select(checkIndex(index)));
+            task.markUndone();
+            return task;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the task at the given index.
+     *
+     * @param index the position of the {@link mario.tasks.Task} in the list (0-based).
+     * @return the task that was deleted.
+     */
+    public Task deleteTask(int index) {
+        writeLock.lock();
+        try {
+            return delete(liveSlots.select(checkIndex(index)));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the task with the given id as complete.
+     *
+     * @param id the id of the task.
+     * @return the task that was marked, or null if there is no task with that id.
      */
-    public void markUndone(int index) {
-        tasks.get(index).markUndone();
+    public Task markDoneById(int id) {
+        writeLock.lock();
+        try {
+            Task task = byId.get(id);
+            if (task != null) {
+                task.markDone();
+            }
+            return task;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
-    public void deleteTask(int index) {
-        tasks.remove(index);
+    /**
+     * Marks the task with the given id as incomplete.
+     *
+     * @param id the id of the task.
+     * @return the task that was unmarked, or null if there is no task with that id.
+     */
+    public Task markUndoneById(int id) {
+        writeLock.lock();
+        try {
+            Task task = byId.get(id);
+            if (task != null) {
+                task.markUndone();
+            }
+            return task;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the task with the given id.
+     *
+     * @param id the id of the task.
+     * @return the task that was deleted, or null if there is no task with that id.
+     */
+    public Task deleteById(int id) {
+        writeLock.lock();
+        try {
+            return byId.containsKey(id) ? delete(findSlot(id)) : null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the task at the given position.
+     *
+     * @param index the position of the {@link mario.tasks.Task} in the list (0-based).
+     * @return the task at that position.
+     * @throws IndexOutOfBoundsException if there is no such position.
+     */
+    public Task getTask(int index) {
+        readLock.lock();
+        try {
+            return slots.get(liveSlots.select(checkIndex(index)));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the task with the given id.
+     *
+     * @param id the id of the task.
+     * @return the task, or null if there is no task with that id.
+     */
+    public Task getTaskById(int id) {
+        readLock.lock();
+        try {
+            return byId.get(id);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= byId.size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + byId.size());
+        }
+        return index;
+    }
+
+    /**
+     * Returns the slot of the live task with the given id. Tasks are appended in id order,
+     * so the slot can be found by binary search, stepping back over tombstones.
+     */
+    private int findSlot(int id) {
+        int lo = 0;
+        int hi = slots.size() - 1;
+        while (true) {
+            int mid = (lo + hi) >>> 1;
+            int live = mid;
+            while (live >= lo && slots.get(live) == null) {
+                live--;
+            }
+            if (live < lo) {
+                lo = mid + 1;
+                continue;
+            }
+            int liveId = slots.get(live).getId();
+            if (liveId == id) {
+                return live;
+            } else if (liveId < id) {
+                lo = mid + 1;
+            } else {
+                hi = live - 1;
+            }
+        }
     }
 
     /**
@@ -49,7 +223,7 @@ public class TaskManager {
      */
     public ToDo addToDo(String description) {
         ToDo task = new ToDo(description);
-        tasks.add(task);
+        addLocked(task);
         return task;
     }
 
@@ -62,7 +236,7 @@ public class TaskManager {
      */
     public Deadline addDeadline(String description, LocalDate deadline) {
         Deadline task = new Deadline(description, deadline);
-        tasks.add(task);
+        addLocked(task);
         return task;
     }
 
@@ -76,17 +250,100 @@ public class TaskManager {
      */
     public Events addEvent(String description, LocalDateTime start, LocalDateTime end) {
         Events task = new Events(description, start, end);
-        tasks.add(task);
+        addLocked(task);
         return task;
     }
 
+    private void addLocked(Task task) {
+        writeLock.lock();
+        try {
+            add(task);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void add(Task task) {
+        if (task.getId() < nextId) {
+            task.setId(nextId);
+        }
+        nextId = task.getId() + 1;
+        byId.put(task.getId(), task);
+        slots.add(task);
+        liveSlots.append(1);
+        searchIndex.add(task);
+        scheduleIndex.add(task);
+    }
+
+    private Task delete(int slot) {
+        Task task = slots.set(slot, null);
+        liveSlots.add(slot, -1);
+        byId.remove(task.getId());
+        searchIndex.remove(task);
+        scheduleIndex.remove(task);
+        int tombstones = slots.size() - byId.size();
+        if (tombstones >= MIN_COMPACTION_TOMBSTONES && tombstones > byId.size()) {
+            compact();
+        }
+        return task;
+    }
+
+    /** Drops every tombstone from the slot list. */
+    private void compact() {
+        slots.removeIf(t -> t == null);
+        liveSlots.clear();
+        for (int i = 0; i < slots.size(); i++) {
+            liveSlots.append(1);
+        }
+    }
+
     /**
-     * Returns an unmodifiable view of the current tasks.
+     * Returns an unmodifiable snapshot of the current tasks.
      *
      * @return an unmodifiable {@link java.util.List} of {@link mario.tasks.Task}.
      */
     public List<Task> getTasks() {
-        return Collections.unmodifiableList(tasks);
+        readLock.lock();
+        try {
+            List<Task> snapshot = new ArrayList<>(byId.size());
+            for (Task t : slots) {
+                if (t != null) {
+                    snapshot.add(t);
+                }
+            }
+            return Collections.unmodifiableList(snapshot);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns an unmodifiable snapshot of up to {@code count} tasks, starting at the given position.
+     * Only the requested tasks are copied, so a page of a long list costs as much as its own size.
+     *
+     * @param from the position of the first task (0-based).
+     * @param count the largest number of tasks to return.
+     * @return the tasks from {@code from} onwards, fewer than {@code count} if the list ends first.
+     * @throws IndexOutOfBoundsException if {@code from} is negative.
+     */
+    public List<Task> getTasks(int from, int count) {
+        if (from < 0) {
+            throw new IndexOutOfBoundsException("Index " + from + " is negative");
+        }
+        readLock.lock();
+        try {
+            int size = (int) Math.max(0, Math.min(byId.size() - (long) from, count));
+            List<Task> page = new ArrayList<>(size);
+            for (int slot = size == 0 ? 0 : liveSlots.select(from); page.size() < size; slot++) {
+                Task t = slots.get(slot);
+                if (t != null) {
+                    page.add(t);
+                }
+            }
+            return Collections.unmodifiableList(page);
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
@@ -95,25 +352,28 @@ public class TaskManager {
      * @return the total number of tasks.
      */
     public int getSize() {
-        return tasks.size();
+        readLock.lock();
+        try {
+            return byId.size();
+        } finally {
+            readLock.unlock();
+        }
     }
 
     /**
      * Searches for tasks whose description contains the given keyword.
-     * The search is case-insensitive.
+     * The search is case-insensitive and served from a {@link SearchIndex}.
      *
      * @param keyword the string to search for in task descriptions.
-     * @return a list of {@link mario.tasks.Task} whose descriptions contain the keyword.
+     * @return a list of {@link mario.tasks.Task} whose descriptions contain the keyword, in list order.
      */
     public List<Task> find(String keyword) {
-        String needle = keyword.toLowerCase();
-        List<Task> matches = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t.getDescription().toLowerCase().contains(needle)) {
-                matches.add(t);
-            }
+        readLock.lock();
+        try {
+            return searchIndex.find(keyword);
+        } finally {
+            readLock.unlock();
         }
-        return matches;
     }
 
     /**
@@ -122,36 +382,72 @@ public class TaskManager {
      * @param items the list of {@link mario.tasks.Task} to add; ignored if null.
      */
     public void addAll(List<Task> items) {
-        if (items != null) {
-            tasks.addAll(items);
+        if (items == null) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            for (Task t : items) {
+                add(t);
+            }
+        } finally {
+            writeLock.unlock();
         }
     }
 
+    /**
+     * Returns the deadlines and events occurring on the given date, ordered by their schedule time
+     * and then by description. The result is read straight out of a {@link ScheduleIndex}.
+     *
+     * @param date the day to look up; null yields an empty schedule.
+     * @return the timed tasks on that day.
+     */
     public List<TimedTask> getScheduleFor(LocalDate date) {
         if (date == null) {
             return Collections.emptyList();
         }
-
-        List<TimedTask> result = new ArrayList<>();
-        for (Task t : this.tasks) {
-            if (t instanceof TimedTask timed && timed.occursOn(date)) {
-                result.add(timed);
-            }
+        readLock.lock();
+        try {
+            return scheduleIndex.scheduleFor(date);
+        } finally {
+            readLock.unlock();
         }
+    }
 
-        // Sort by each item's representative schedule time, then by description for stability
-        result.sort((a, b) -> {
-            var ta = a.getScheduleTime(date);
-            var tb = b.getScheduleTime(date);
-            int cmp = ta.compareTo(tb);
-            if (cmp != 0) {
-                return cmp;
-            }
-            String da = a.getDescription() == null ? "" : a.getDescription();
-            String db = b.getDescription() == null ? "" : b.getDescription();
-            return da.compareToIgnoreCase(db);
-        });
+    /**
+     * Receives the days of a schedule range one at a time.
+     */
+    @FunctionalInterface
+    public interface ScheduleVisitor {
+        /**
+         * Takes one day that has at least one deadline or event.
+         *
+         * @param day the day.
+         * @param schedule its deadlines and events, in the order {@link #getScheduleFor(LocalDate)} returns them.
+         * @throws IOException if the day cannot be handled, which ends the walk.
+         */
+        void visit(LocalDate day, List<TimedTask> schedule) throws IOException;
+    }
 
-        return result;
+    /**
+     * Hands the schedule of every day from {@code from} to {@code to}, inclusive, that has at
+     * least one deadline or event to the visitor, in date order. The range is swept through the
+     * {@link ScheduleIndex} once under a single read lock, so the days form a consistent snapshot;
+     * days without tasks are skipped at no cost, and only one day's schedule is built at a time.
+     * Writers wait until the visitor is done with the last day.
+     *
+     * @param from the first day of the range.
+     * @param to the last day of the range.
+     * @param visitor receives each non-empty day with its schedule.
+     * @return the number of days visited.
+     * @throws IOException if the visitor fails.
+     */
+    public int forEachScheduledDay(LocalDate from, LocalDate to, ScheduleVisitor visitor) throws IOException {
+        readLock.lock();
+        try {
+            return scheduleIndex.forEachDayBetween(from, to, visitor);
+        } finally {
+            readLock.unlock();
+        }
     }
 }
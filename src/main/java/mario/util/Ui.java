@@ -1,5 +1,6 @@
 package mario.util;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -7,6 +8,7 @@ import java.util.List;
 import mario.tasks.Deadline;
 import mario.tasks.Events;
 import mario.tasks.Task;
+import mario.tasks.TimedTask;
 import mario.tasks.ToDo;
 
 
@@ -21,6 +23,11 @@ import mario.tasks.ToDo;
  */
 public class Ui {
     private static final String LINE = "";
+    private static final String NEWLINE = System.lineSeparator();
+    private static final String LIST_HEADER = "Here's the list of chores you will NOT complete MUAHAHAH\n";
+    /** Size a streamed list is buffered up to before it is handed to the output. */
+    private static final int CHUNK_SIZE = 8 * 1024;
+    private static final DateTimeFormatter SCHEDULE_DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE, MMM d yyyy");
     private static final String LOGO =
             ".-. .-')                .-') _                         \n"
           + "\\  ( OO )              ( OO ) )                        \n"
@@ -45,6 +52,47 @@ public class Ui {
         return sb.toString();
     }
 
+    /**
+     * Reports how many tasks were loaded at startup and how long it took.
+     *
+     * @param count the number of tasks loaded.
+     * @param loadMillis the time spent loading and parsing the storage file.
+     * @param sinceLaunchMillis the time since the process started, or a negative value if unknown.
+     * @return the startup report.
+     */
+    public String showStartupReport(int count, long loadMillis, long sinceLaunchMillis) {
+        String taskWord = (count == 1) ? "task" : "tasks";
+        String report = String.format("Loaded %d %s in %d ms", count, taskWord, loadMillis);
+        if (sinceLaunchMillis >= 0) {
+            report += String.format(" (ready %d ms after launch)", sinceLaunchMillis);
+        }
+        return sendMessage(report + ".");
+    }
+
+    /**
+     * Reports damage found while loading the saved tasks.
+     *
+     * @param problems descriptions of what was damaged and where it was backed up.
+     * @return the report.
+     */
+    public String showLoadProblems(List<String> problems) {
+        StringBuilder sb = new StringBuilder("Something chewed on your saved tasks. I kept what I could:\n");
+        for (String problem : problems) {
+            sb.append("  - ").append(problem).append("\n");
+        }
+        return sendMessage(sb.toString());
+    }
+
+    /**
+     * Shows where the time went, as tabulated by {@link Metrics#report()}.
+     *
+     * @param report the table of latencies and counters.
+     * @return the message.
+     */
+    public String showStats(String report) {
+        return sendMessage("Here's where all your precious time went. Don't blame me:\n" + report);
+    }
+
     /**
      * Prints a message wrapped by horizontal separator lines for consistent formatting.
      *
@@ -71,24 +119,63 @@ public class Ui {
         StringBuilder sb = new StringBuilder();
         sb.append("I found what you were looking for. Of course, you couldn't find it yourself:\n");
         for (int i = 0; i < tasks.size(); i++) {
-            sb.append(String.format("%d. %s%n", i + 1, tasks.get(i)));
+            appendTaskLine(sb, i + 1, tasks.get(i));
         }
         return sb.toString();
     }
 
     /**
-     * Displays all tasks in the given list, numbered from 1.
+     * Writes the given tasks under the list header, numbered from {@code firstIndex + 1} and
+     * followed by each task's id. Lines are rendered into a small buffer that is handed to
+     * {@code out} each time it fills up, so a long list is never held in memory as a whole.
      *
-     * @param tasks the list of {@link mario.tasks.Task} to display.
+     * @param out where the list is written.
+     * @param tasks the tasks to display.
+     * @param firstIndex the position of the first task in the whole list (0-based).
+     * @throws IOException if writing to {@code out} fails.
      */
-    public String showTasks(List<Task> tasks) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Here's the list of chores you will NOT complete MUAHAHAH\n");
+    public void showTasks(Appendable out, List<Task> tasks, int firstIndex) throws IOException {
+        StringBuilder chunk = new StringBuilder(Math.min(CHUNK_SIZE + 256, 64 + tasks.size() * 64));
+        chunk.append(LIST_HEADER);
         for (int i = 0; i < tasks.size(); i++) {
-            sb.append(String.format("%d. %s%n", i + 1, tasks.get(i)));
+            appendTaskLine(chunk, firstIndex + i + 1, tasks.get(i));
+            if (chunk.length() >= CHUNK_SIZE) {
+                out.append(chunk);
+                chunk.setLength(0);
+            }
         }
-        sb.append(LINE);
-        return sb.toString();
+        chunk.append(LINE);
+        out.append(chunk);
+    }
+
+    /**
+     * Describes which part of the list a page showed and how to see the next one.
+     *
+     * @param page the page shown (1-based).
+     * @param pageCount the number of pages in the list.
+     * @param firstIndex the position of the first task shown (0-based).
+     * @param shown the number of tasks shown.
+     * @param total the number of tasks in the list.
+     * @param nextPageCommand the command showing the next page, or null if this is the last page.
+     * @return the footer, ending with a newline.
+     */
+    public String showPageFooter(int page, int pageCount, int firstIndex, int shown, int total,
+            String nextPageCommand) {
+        String range = shown == 0 ? "no tasks" : String.format("tasks %d-%d", firstIndex + 1, firstIndex + shown);
+        String footer = String.format("Page %d of %d (%s of %d).", page, pageCount, range, total);
+        if (nextPageCommand != null) {
+            footer += String.format(" Type \"%s\" for more, if you can bear it.", nextPageCommand);
+        }
+        return footer + "\n";
+    }
+
+    /**
+     * Appends one numbered line of a task list, such as {@code 3. #17 [T][ ] read book}.
+     */
+    private static void appendTaskLine(StringBuilder sb, int number, Task task) {
+        sb.append(number).append(". #").append(task.getId()).append(' ');
+        task.appendTo(sb);
+        sb.append(NEWLINE);
     }
 
     /**
@@ -152,7 +239,7 @@ public class Ui {
      */
     public String showSchedule(List<? extends Task> tasks, LocalDate date) {
         StringBuilder sb = new StringBuilder();
-        sb.append("MY DEMANDS FOR ").append(date.format(DateTimeFormatter.ofPattern("EEE, MMM d yyyy"))).append(":\n");
+        sb.append("MY DEMANDS FOR ").append(date.format(SCHEDULE_DATE_FORMATTER)).append(":\n");
 
         if (tasks.isEmpty()) {
             sb.append("  (No events or deadlines)\n");
@@ -165,4 +252,31 @@ public class Ui {
         sb.append(LINE);
         return sb.toString();
     }
+
+    /**
+     * Writes the agenda for a range of dates, one section per day, each written as soon as the
+     * task manager hands it over.
+     *
+     * @param out where the agenda is written.
+     * @param from the first day of the range.
+     * @param to the last day of the range.
+     * @param tasks the task manager whose schedule is shown.
+     * @throws IOException if writing to {@code out} fails.
+     */
+    public void showScheduleRange(Appendable out, LocalDate from, LocalDate to, TaskManager tasks)
+            throws IOException {
+        out.append("MY DEMANDS FROM ").append(from.format(SCHEDULE_DATE_FORMATTER))
+                .append(" TO ").append(to.format(SCHEDULE_DATE_FORMATTER)).append(":\n");
+
+        int dayCount = tasks.forEachScheduledDay(from, to, (day, schedule) -> {
+            out.append(day.format(SCHEDULE_DATE_FORMATTER)).append(":\n");
+            for (TimedTask t : schedule) {
+                out.append("  ").append(t.toString()).append("\n");
+            }
+        });
+        if (dayCount == 0) {
+            out.append("  (No events or deadlines)\n");
+        }
+        out.append(LINE);
+    }
 }
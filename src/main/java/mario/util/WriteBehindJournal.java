@@ -0,0 +1,209 @@
+package mario.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends journal records on a background writer thread, so that callers only pay for adding a
+ * record to a queue.
+ * <p>
+ * The writer commits records in groups: once a record is queued it waits up to the configured
+ * delay for more to arrive, then writes everything queued in one go and forces it to disk once.
+ * {@link #flush()} asks for an immediate commit and waits for it. A shutdown hook flushes whatever
+ * is still queued when the JVM exits normally.
+ * <p>
+ * If a commit fails, the writer stops and every record still queued is counted as settled, so no
+ * flush waits for it; the failure is reported until {@link #close()}.
+ */
+class WriteBehindJournal {
+    private final File file;
+    private final long maxDelayNanos;
+    private final Object monitor = new Object();
+    private List<String> queued = new ArrayList<>();
+    private long queuedCount;
+    private long writtenCount;
+    private boolean isFlushRequested;
+    private boolean isClosed;
+    private IOException failure;
+    private Thread writer;
+    private Thread shutdownHook;
+
+    /**
+     * Creates a journal appending to the given file.
+     *
+     * @param file the journal file; created on the first commit if missing.
+     * @param maxDelayMillis how long a queued record may wait for others to join its commit.
+     */
+    WriteBehindJournal(File file, long maxDelayMillis) {
+        this.file = file;
+        this.maxDelayNanos = Math.max(0, maxDelayMillis) * 1_000_000;
+    }
+
+    /**
+     * Queues a record, starting the writer thread if needed.
+     *
+     * @param record one line of journal, without the line separator.
+     * @throws IOException if an earlier commit failed.
+     */
+    void append(String record) throws IOException {
+        synchronized (monitor) {
+            throwIfFailed();
+            if (writer == null) {
+                start();
+            }
+            queued.add(record);
+            queuedCount++;
+            monitor.notifyAll();
+        }
+    }
+
+    /**
+     * Commits every queued record now and waits until it is on disk.
+     *
+     * @throws IOException if a commit failed.
+     */
+    void flush() throws IOException {
+        synchronized (monitor) {
+            long target = queuedCount;
+            isFlushRequested = true;
+            monitor.notifyAll();
+            boolean isInterrupted = false;
+            while (writtenCount < target && failure == null) {
+                try {
+                    monitor.wait();
+                } catch (InterruptedException e) {
+                    isInterrupted = true;
+                }
+            }
+            if (isInterrupted) {
+                Thread.currentThread().interrupt();
+            }
+            throwIfFailed();
+        }
+    }
+
+    /**
+     * Flushes, then stops the writer thread. The journal can be appended to again afterwards,
+     * which starts a new writer.
+     *
+     * @throws IOException if the final commit failed.
+     */
+    void close() throws IOException {
+        Thread stopped;
+        synchronized (monitor) {
+            try {
+                flush();
+            } finally {
+                isClosed = true;
+                monitor.notifyAll();
+                stopped = writer;
+                writer = null;
+                failure = null;
+            }
+        }
+        if (stopped != null) {
+            try {
+                stopped.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Already shutting down; the hook is running or has run
+            }
+        }
+    }
+
+    private void start() {
+        isClosed = false;
+        writer = new Thread(this::writeLoop, "mario-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        shutdownHook = new Thread(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                System.err.println("Could not write the storage journal: " + e.getMessage());
+            }
+        }, "mario-journal-flush");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private void writeLoop() {
+        try (FileOutputStream stream = new FileOutputStream(file, true);
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+            while (true) {
+                List<String> group;
+                synchronized (monitor) {
+                    if (!awaitGroup()) {
+                        return;
+                    }
+                    group = queued;
+                    queued = new ArrayList<>();
+                    isFlushRequested = false;
+                }
+                for (String record : group) {
+                    out.write(record);
+                    out.newLine();
+                }
+                out.flush();
+                stream.getChannel().force(false);
+                synchronized (monitor) {
+                    writtenCount += group.size();
+                    monitor.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            synchronized (monitor) {
+                failure = e;
+                // The failed group and anything queued behind it are lost; settle them
+                queued = new ArrayList<>();
+                writtenCount = queuedCount;
+                monitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits until a group is ready to commit: something is queued and either a flush was asked
+     * for or the delay has passed. Returns false once the journal is closed and drained.
+     */
+    private boolean awaitGroup() {
+        while (queued.isEmpty()) {
+            if (isClosed) {
+                return false;
+            }
+            waitQuietly(0);
+        }
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (!isFlushRequested && !isClosed) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            waitQuietly(Math.max(1, remaining / 1_000_000));
+        }
+        return true;
+    }
+
+    private void waitQuietly(long millis) {
+        try {
+            monitor.wait(millis);
+        } catch (InterruptedException e) {
+            // The writer only stops when the journal is closed
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            throw new IOException("Could not write the storage journal", failure);
+        }
+    }
+}
@@ -1,10 +1,24 @@
 package mario;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
 import org.junit.jupiter.api.Test;
 
+import mario.commands.Command;
 import mario.tasks.ToDo;
+import mario.util.Metrics;
+import mario.util.Storage;
+import mario.util.TaskManager;
 
 public class MarioTest {
 
@@ -31,4 +45,74 @@ public class MarioTest {
         String s3 = t.toString();
         assertTrue(s3.contains("[ ]"), "After markUndone(), status should be [ ]");
     }
+
+    @Test
+    void executeBatch_savesOnceAndReportsEachCommand() throws IOException {
+        String fileName = "batch-test-" + System.nanoTime() + ".txt";
+        try {
+            Mario mario = new Mario(new TaskManager(10), new Storage(fileName));
+            List<String> script = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                script.add("todo task " + i);
+            }
+            script.add("");
+            script.add("mark 1");
+            script.add("nonsense");
+            script.add("bye");
+            script.add("todo never run");
+
+            List<String> responses = mario.executeBatch(script);
+
+            assertEquals(503, responses.size());
+            assertTrue(responses.get(0).contains("task 0"));
+            assertFalse(Files.exists(Path.of("data", fileName + ".journal")));
+
+            TaskManager reloaded = new TaskManager(10);
+            reloaded.addAll(new Storage(fileName).load());
+            assertEquals(500, reloaded.getSize());
+            assertTrue(reloaded.getTask(0).isDone());
+        } finally {
+            deleteStorage(fileName);
+        }
+    }
+
+    @Test
+    void stats_reportsEachPhaseOfEachCommandType() throws IOException {
+        String fileName = "stats-test-" + System.nanoTime() + ".txt";
+        try {
+            Storage storage = new Storage(fileName);
+            Mario mario = new Mario(new TaskManager(10), storage);
+            mario.getResponse("todo read");
+            mario.getResponse("list");
+            mario.getResponse("nonsense");
+
+            String stats = mario.getResponse("stats");
+
+            assertTrue(stats.contains("todo      parse"), stats);
+            assertTrue(stats.contains("todo      execute"), stats);
+            assertTrue(stats.contains("todo      persist"), stats);
+            assertTrue(stats.contains("list      execute"), stats);
+            assertFalse(stats.contains("list      persist"), stats);
+            assertTrue(stats.contains("unknown   parse"), stats);
+            Metrics metrics = storage.getMetrics();
+            assertEquals(4, metrics.getCommands());
+            assertTrue(metrics.getBytesWritten() > "A T | 0 | read".length());
+            assertEquals(1, metrics.getLatency(Command.Type.TODO, Metrics.Phase.PERSIST).getCount());
+        } finally {
+            deleteStorage(fileName);
+        }
+    }
+
+    private static void deleteStorage(String fileName) throws IOException {
+        Files.deleteIfExists(Path.of("data", fileName));
+        Files.deleteIfExists(Path.of("data", fileName + ".journal"));
+        Path snapshots = Path.of("data", fileName + ".snapshots");
+        if (Files.exists(snapshots)) {
+            try (Stream<Path> paths = Files.walk(snapshots)) {
+                for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(p);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package mario.commands;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import mario.exceptions.InvalidCommandException;
+import mario.util.CommandTokenizer;
+import mario.util.Parser;
+
+public class CommandRegistryTest {
+    @Test
+    void registeredCommand_isParsedByKeywordAndAliasIgnoringCase() throws Exception {
+        CommandRegistry commands = CommandRegistry.standard()
+                .register(ListCommand::parse, "ls", "dir");
+
+        assertInstanceOf(ListCommand.class, Parser.parse("ls", commands));
+        assertInstanceOf(ListCommand.class, Parser.parse("  DIR ", commands));
+        assertInstanceOf(TodoCommand.class, Parser.parse("Todo read", commands));
+        assertThrows(InvalidCommandException.class, () -> Parser.parse("ls", CommandRegistry.standard()));
+    }
+
+    @Test
+    void lookup_prefixOrExtensionOfKeyword_isNotFound() {
+        CommandRegistry commands = CommandRegistry.standard();
+
+        assertNull(commands.lookup(new CommandTokenizer("mar 1")));
+        assertNull(commands.lookup(new CommandTokenizer("marks 1")));
+        assertNull(commands.lookup(new CommandTokenizer("")));
+    }
+
+    @Test
+    void register_duplicateKeyword_throws() {
+        assertThrows(IllegalArgumentException.class, () -> CommandRegistry.standard()
+                .register(ListCommand::parse, "LIST"));
+        assertThrows(IllegalArgumentException.class, () -> new CommandRegistry()
+                .register(ListCommand::parse, "two words"));
+    }
+}
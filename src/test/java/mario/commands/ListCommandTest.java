@@ -0,0 +1,78 @@
+package mario.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import mario.exceptions.MarioException;
+import mario.util.TaskManager;
+import mario.util.Ui;
+
+public class ListCommandTest {
+    private final Ui ui = new Ui();
+
+    private TaskManager tasks(int count) {
+        TaskManager tasks = new TaskManager(count);
+        for (int i = 1; i <= count; i++) {
+            tasks.addToDo("task " + i);
+        }
+        return tasks;
+    }
+
+    @Test
+    void listAll_streamsEveryTaskInChunks() throws Exception {
+        TaskManager tasks = tasks(2_000);
+        List<String> chunks = new ArrayList<>();
+        Appendable out = new Appendable() {
+            @Override
+            public Appendable append(CharSequence text) {
+                chunks.add(text.toString());
+                return this;
+            }
+
+            @Override
+            public Appendable append(CharSequence text, int start, int end) {
+                return append(text.subSequence(start, end));
+            }
+
+            @Override
+            public Appendable append(char c) {
+                return append(String.valueOf(c));
+            }
+        };
+
+        new ListCommand().executeInto(tasks, null, ui, out);
+
+        assertTrue(chunks.size() > 1);
+        String text = String.join("", chunks);
+        String[] lines = text.split("\\R");
+        assertEquals(2_001, lines.length);
+        for (int i = 1; i <= 2_000; i++) {
+            assertEquals(i + ". #" + i + " [T][ ] task " + i, lines[i]);
+        }
+        assertEquals(text, new ListCommand().execute(tasks, null, ui));
+    }
+
+    @Test
+    void page_showsOnlyItsTasksNumberedByPosition() throws Exception {
+        TaskManager tasks = tasks(45);
+
+        String second = new ListCommand(2, 20).execute(tasks, null, ui);
+        assertTrue(second.contains("21. #21 [T][ ] task 21"));
+        assertTrue(second.contains("40. #40 [T][ ] task 40"));
+        assertFalse(second.contains("task 41"));
+        assertTrue(second.contains("Page 2 of 3"));
+        assertTrue(second.contains("list page 3"));
+
+        String last = new ListCommand(3, 20).execute(tasks, null, ui);
+        assertTrue(last.contains("45. #45"));
+        assertFalse(last.contains("list page 4"));
+        assertThrows(MarioException.class, () -> new ListCommand(4, 20).execute(tasks, null, ui));
+    }
+}
@@ -0,0 +1,195 @@
+package mario.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import mario.Mario;
+import mario.util.Storage;
+import mario.util.TaskManager;
+
+public class MarioServerTest {
+    private final String fileName = "server-test-" + System.nanoTime() + ".txt";
+    private MarioServer server;
+    private ExecutorService acceptor;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        ServerSocket socket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress());
+        server = new MarioServer(socket, tenant -> new Mario(new TaskManager(10), new Storage(tenant + fileName)));
+        acceptor = Executors.newSingleThreadExecutor();
+        acceptor.submit(() -> {
+            server.serve();
+            return null;
+        });
+    }
+
+    @AfterEach
+    void stopServer() throws IOException {
+        server.close();
+        acceptor.shutdownNow();
+        for (String tenant : List.of("alice", "bob")) {
+            Files.deleteIfExists(Path.of("data", tenant + fileName));
+            Files.deleteIfExists(Path.of("data", tenant + fileName + ".journal"));
+        }
+    }
+
+    @Test
+    void sessionsOfOneTenantShareTasks_otherTenantsDoNot() throws Exception {
+        try (Client alice = new Client("alice");
+             Client aliceAgain = new Client("alice");
+             Client bob = new Client("bob")) {
+            alice.send("todo water plants");
+            assertTrue(aliceAgain.send("list").contains("water plants"));
+            assertFalse(bob.send("list").contains("water plants"));
+        }
+    }
+
+    @Test
+    void tenantNames_areCaseInsensitive() throws Exception {
+        try (Client alice = new Client("alice");
+             Client upperAlice = new Client("ALICE")) {
+            alice.send("todo water plants");
+            assertTrue(upperAlice.send("list").contains("water plants"));
+        }
+    }
+
+    @Test
+    void overlongTenantLine_endsSession() throws Exception {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            socket.getOutputStream().write(("x".repeat(1_000) + "\n").getBytes(StandardCharsets.UTF_8));
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            String reply;
+            try {
+                reply = in.readLine();
+            } catch (SocketException e) {
+                // The server may reset the connection since it left the rest of the line unread
+                reply = null;
+            }
+            assertNull(reply);
+        }
+    }
+
+    @Test
+    void defaultServer_keepsTenantFilesInTheirOwnDirectory() throws Exception {
+        String tenant = "Server-Test-" + System.nanoTime();
+        Path tenantDirectory = Path.of("data", "tenants");
+        try (MarioServer defaultServer = new MarioServer(0)) {
+            Thread serving = new Thread(() -> {
+                try {
+                    defaultServer.serve();
+                } catch (IOException e) {
+                    // Closing the server ends the test
+                }
+            });
+            serving.setDaemon(true);
+            serving.start();
+            try (Client client = new Client(defaultServer.getPort(), tenant)) {
+                client.send("todo water plants");
+                client.send("bye");
+            }
+            assertTrue(Files.exists(tenantDirectory.resolve(tenant.toLowerCase() + ".txt.journal")));
+        } finally {
+            try (Stream<Path> files = Files.list(tenantDirectory)) {
+                for (Path p : files.filter(p -> p.getFileName().toString().startsWith(tenant.toLowerCase())).toList()) {
+                    Files.delete(p);
+                }
+            }
+        }
+    }
+
+    @Test
+    void bye_endsSession() throws Exception {
+        try (Client client = new Client("alice")) {
+            client.send("bye");
+            assertNull(client.in.readLine());
+        }
+    }
+
+    @Test
+    void concurrentSessions_allCommandsApplied() throws Exception {
+        int sessions = 8;
+        int perSession = 25;
+        ExecutorService clients = Executors.newFixedThreadPool(sessions);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int s = 0; s < sessions; s++) {
+            int session = s;
+            futures.add(clients.submit(() -> {
+                try (Client client = new Client("alice")) {
+                    for (int i = 0; i < perSession; i++) {
+                        client.send("todo session " + session + " task " + i);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        clients.shutdown();
+
+        try (Client client = new Client("alice")) {
+            String list = client.send("list");
+            assertEquals(sessions * perSession, list.split("\n").length - 1);
+        }
+    }
+
+    /** Minimal client that reads one dot-terminated reply per command. */
+    private class Client implements AutoCloseable {
+        private final Socket socket;
+        private final BufferedReader in;
+        private final Writer out;
+
+        Client(String tenant) throws IOException {
+            this(server.getPort(), tenant);
+        }
+
+        Client(int port, String tenant) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            send(tenant);
+        }
+
+        String send(String line) throws IOException {
+            out.write(line + "\n");
+            out.flush();
+            StringBuilder reply = new StringBuilder();
+            String received;
+            while ((received = in.readLine()) != null && !received.equals(".")) {
+                reply.append(received.startsWith(".") ? received.substring(1) : received).append('\n');
+            }
+            return reply.toString();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
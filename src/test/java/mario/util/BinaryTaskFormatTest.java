@@ -0,0 +1,75 @@
+package mario.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import mario.tasks.Deadline;
+import mario.tasks.Events;
+import mario.tasks.Task;
+import mario.tasks.ToDo;
+
+public class BinaryTaskFormatTest {
+
+    @Test
+    void encodeThenDecode_roundTripsEveryTaskType() throws IOException {
+        Deadline deadline = new Deadline("return bööks", LocalDate.of(2025, 9, 22));
+        deadline.markDone();
+        deadline.setId(42);
+        List<Task> tasks = List.of(
+                new ToDo("buy milk"),
+                deadline,
+                new Events("sleep", LocalDateTime.of(2025, 9, 20, 0, 0), LocalDateTime.of(2025, 9, 20, 7, 30)));
+
+        ArrayList<Task> decoded = BinaryTaskFormat.decode(new ByteArrayInputStream(BinaryTaskFormat.encode(tasks)));
+
+        assertEquals(tasks.size(), decoded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getClass(), decoded.get(i).getClass());
+            assertEquals(tasks.get(i).toString(), decoded.get(i).toString());
+            assertEquals(tasks.get(i).getId(), decoded.get(i).getId());
+        }
+    }
+
+    @Test
+    void decode_rejectsOtherVersions() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(BinaryTaskFormat.MAGIC);
+            out.writeShort(BinaryTaskFormat.VERSION + 1);
+            out.writeShort(0);
+            out.writeInt(0);
+        }
+
+        assertThrows(IOException.class, () -> BinaryTaskFormat.decode(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    void read_flippedByte_isNotIntact() throws IOException {
+        byte[] content = BinaryTaskFormat.encode(List.of(new ToDo("buy milk")), 7);
+        content[24] ^= 1;
+
+        BinaryTaskFormat.Contents contents = BinaryTaskFormat.read(new ByteArrayInputStream(content));
+
+        assertEquals(7, contents.generation());
+        assertFalse(contents.isIntact());
+        assertThrows(IOException.class, () -> BinaryTaskFormat.decode(new ByteArrayInputStream(content)));
+    }
+
+    @Test
+    void decode_rejectsTextFile() {
+        byte[] text = "[T][ ] help\n".getBytes();
+        assertThrows(IOException.class, () -> BinaryTaskFormat.decode(new ByteArrayInputStream(text)));
+    }
+}
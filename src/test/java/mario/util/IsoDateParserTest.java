@@ -0,0 +1,58 @@
+package mario.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.junit.jupiter.api.Test;
+
+public class IsoDateParserTest {
+    @Test
+    void parseDate_matchesLocalDateParseForEveryDayOfALeapCycle() {
+        for (LocalDate day = LocalDate.of(2023, 1, 1); day.getYear() < 2027; day = day.plusDays(1)) {
+            assertEquals(day, IsoDateParser.parseDate(day.toString()));
+        }
+    }
+
+    @Test
+    void parseDate_repeatedText_returnsCachedInstance() {
+        LocalDate first = IsoDateParser.parseDate(new String("2031-07-04"));
+        assertSame(first, IsoDateParser.parseDate(new String("2031-07-04")));
+    }
+
+    @Test
+    void parseDate_invalidDates_throwLikeLocalDate() {
+        assertThrows(DateTimeParseException.class, () -> IsoDateParser.parseDate("2025-02-29"));
+        assertThrows(DateTimeParseException.class, () -> IsoDateParser.parseDate("2025-13-01"));
+        assertThrows(DateTimeParseException.class, () -> IsoDateParser.parseDate("2025/01/01"));
+        assertEquals(LocalDate.of(2024, 2, 29), IsoDateParser.parseDate("2024-02-29"));
+        assertEquals(LocalDate.parse("+12025-01-01"), IsoDateParser.parseDate("+12025-01-01"));
+    }
+
+    @Test
+    void parseDateTime_acceptsMinutesSecondsAndFractions() {
+        assertEquals(LocalDateTime.of(2025, 9, 12, 14, 30), IsoDateParser.parseDateTime("2025-09-12T14:30"));
+        assertEquals(LocalDateTime.of(2025, 9, 12, 14, 30, 5), IsoDateParser.parseDateTime("2025-09-12T14:30:05"));
+        assertEquals(LocalDateTime.parse("2025-09-12T14:30:05.25"),
+                IsoDateParser.parseDateTime("2025-09-12T14:30:05.25"));
+        assertThrows(DateTimeParseException.class, () -> IsoDateParser.parseDateTime("2025-09-12T24:00"));
+    }
+
+    @Test
+    void parseDateTimeOrNull_notADateTime_returnsNull() {
+        assertNull(IsoDateParser.parseDateTimeOrNull("2025-09-12"));
+        assertNull(IsoDateParser.parseDateTimeOrNull("2025-09-12T14:60"));
+        assertNull(IsoDateParser.parseDateTimeOrNull("Tomorrow"));
+    }
+
+    @Test
+    void parseDateTimeOrNull_lowercaseSeparator_parsesLikeLocalDateTime() {
+        assertEquals(LocalDateTime.parse("2025-01-01t10:00"), IsoDateParser.parseDateTimeOrNull("2025-01-01t10:00"));
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0), IsoDateParser.parseDateTime("2025-01-01t10:00"));
+    }
+}
@@ -0,0 +1,67 @@
+package mario.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    @Test
+    void percentiles_areWithinAnEighthOfTheExactValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 1_000_000; v++) {
+            histogram.record(v * 37);
+        }
+
+        assertEquals(1_000_000, histogram.getCount());
+        assertEquals(37_000_000, histogram.getMax());
+        for (double percentile : new double[] {1, 50, 90, 99, 99.9}) {
+            double exact = percentile / 100 * 37_000_000;
+            long reported = histogram.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact && reported <= exact * 1.125, percentile + "th: " + reported);
+        }
+        assertEquals(37_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void smallValues_areCountedExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 0; v < 16; v++) {
+            histogram.record(v);
+        }
+        histogram.record(-5);
+
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(7, histogram.getValueAtPercentile(50));
+        assertEquals(15, histogram.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(50));
+    }
+
+    @Test
+    void concurrentRecording_losesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long offset = t;
+            threads.add(new Thread(() -> {
+                for (long v = 0; v < 100_000; v++) {
+                    histogram.record(v * 4 + offset);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(399_999, histogram.getMax());
+        assertEquals(399_999, histogram.getValueAtPercentile(100));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+}
@@ -0,0 +1,147 @@
+package mario.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import mario.tasks.Task;
+
+public class MappedTaskLoaderTest {
+
+    private static final List<String> LINES = List.of(
+            "[T][ ] help",
+            "[T][X]   padded todo   ",
+            "[D][ ] ip (by: 2025-09-22)",
+            "[D][X] café (by: 2024-02-29)",
+            "[D][ ] nested (by: me) (by: 2025-01-01)",
+            "[E][ ] sleep (from: 2025-09-20T00:00:00, to: 2025-09-20T07:30:00)",
+            "[E][X] meeting (from: 2025-09-20T14:00, to: 2025-09-20T16:00)",
+            "[E][ ] trip (from: 2025-09-20, to: 2025-09-22)",
+            "[É][ ] not a task",
+            "[T][ ]",
+            "#12 [T][X] with id",
+            "#7 [D][ ] id deadline (by: 2025-01-01)",
+            "#0 [T][ ] zero id",
+            "#x [T][ ] bad id",
+            "",
+            "garbage");
+
+    @Test
+    void parse_matchesParseStorageLine() {
+        String content = String.join("\r\n", LINES) + "\n";
+        List<String> unreadable = new ArrayList<>();
+        List<Task> loaded = MappedTaskLoader.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)),
+                unreadable);
+        assertEquals(expected(), render(loaded));
+        assertEquals(expectedUnreadable(), unreadable);
+    }
+
+    @Test
+    void load_readsMappedFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("tasks.txt");
+        Files.write(file, LINES, StandardCharsets.UTF_8);
+        List<String> unreadable = new ArrayList<>();
+        assertEquals(expected(), render(MappedTaskLoader.load(file, unreadable)));
+        assertEquals(expectedUnreadable(), unreadable);
+    }
+
+    @Test
+    void load_smallWindow_splitsAndGrowsAroundLines(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("tasks.txt");
+        Files.write(file, LINES, StandardCharsets.UTF_8);
+        List<String> unreadable = new ArrayList<>();
+        assertEquals(expected(), render(MappedTaskLoader.load(file, unreadable, 16)));
+        assertEquals(expectedUnreadable(), unreadable);
+    }
+
+    @Test
+    void load_thenReplaceFile_succeeds(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("tasks.txt");
+        Files.write(file, LINES, StandardCharsets.UTF_8);
+        MappedTaskLoader.load(file, new ArrayList<>());
+
+        Path replacement = dir.resolve("tasks.txt.tmp");
+        Files.writeString(replacement, "[T][ ] new\n", StandardCharsets.UTF_8);
+        Files.move(replacement, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        assertEquals(List.of("[T][ ] new"), Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void parse_largeContentInParallel_keepsFileOrder() {
+        StringBuilder sb = new StringBuilder();
+        int count = 0;
+        while (sb.length() < 3 * MappedTaskLoader.PARALLEL_THRESHOLD) {
+            sb.append("[T][ ] task ").append(count++).append('\n');
+        }
+        List<String> unreadable = new ArrayList<>();
+        List<Task> loaded = MappedTaskLoader.parse(ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8)),
+                unreadable);
+
+        assertEquals(count, loaded.size());
+        assertEquals(List.of(), unreadable);
+        for (int i = 0; i < count; i++) {
+            assertEquals("task " + i, loaded.get(i).getDescription());
+        }
+    }
+
+    @Test
+    void parse_impossibleDate_skipsAndReturnsLine() {
+        String content = "[T][ ] before\n[D][ ] bad (by: 2025-19-02)\n[T][ ] after\n";
+        List<String> unreadable = new ArrayList<>();
+        List<Task> loaded = MappedTaskLoader.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)),
+                unreadable);
+
+        assertEquals(List.of("before", "after"), loaded.stream().map(Task::getDescription).toList());
+        assertEquals(List.of("[D][ ] bad (by: 2025-19-02)"), unreadable);
+    }
+
+    @Test
+    void parse_unrecognisedLines_reportedButBlankAndFooterSkipped() {
+        String content = "[T][ ] before\ngarbage\n[T][ ]\n   \n[X][ ] unknown type\n[T][ ] after\n#crc32c 1a2b3c4d\n";
+        List<String> unreadable = new ArrayList<>();
+        List<Task> loaded = MappedTaskLoader.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)),
+                unreadable);
+
+        assertEquals(List.of("before", "after"), loaded.stream().map(Task::getDescription).toList());
+        assertEquals(List.of("garbage", "[T][ ]", "[X][ ] unknown type"), unreadable);
+    }
+
+    private static List<String> expected() {
+        List<Task> parsed = new ArrayList<>();
+        for (String line : LINES) {
+            Task task = Parser.parseStorageLine(line);
+            if (task != null) {
+                parsed.add(task);
+            }
+        }
+        return render(parsed);
+    }
+
+    private static List<String> expectedUnreadable() {
+        List<String> unreadable = new ArrayList<>();
+        for (String line : LINES) {
+            if (!line.isBlank() && Parser.parseStorageLine(line) == null) {
+                unreadable.add(line);
+            }
+        }
+        return unreadable;
+    }
+
+    private static List<String> render(List<Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) {
+            out.add(t.getClass().getSimpleName() + " #" + t.getId() + " " + t);
+        }
+        return out;
+    }
+}
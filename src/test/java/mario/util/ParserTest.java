@@ -7,10 +7,19 @@ package mario.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDate;
+
 import mario.commands.DeadlineCommand;
+import mario.commands.DeleteCommand;
 import mario.commands.EventCommand;
+import mario.commands.ListCommand;
+import mario.commands.MarkCommand;
+import mario.commands.UnmarkCommand;
 import mario.commands.ViewCommand;
+import mario.exceptions.EmptyEventTimeException;
+import mario.exceptions.InvalidCommandException;
 import mario.exceptions.MarioException;
+import mario.tasks.Task;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
@@ -31,12 +40,39 @@ public class ParserTest {
         assertThrows(MarioException.class, () -> parser.parse("deadline desc /by   "));
     }
 
+    @Test
+    @DisplayName("deadline: keyword is case-insensitive and surrounding spaces are ignored")
+    void deadline_mixedCaseAndSpaces() throws Exception {
+        var cmd = parser.parse("  DeadLine   return book   /by   2025-09-25  ");
+        assertInstanceOf(DeadlineCommand.class, cmd);
+        assertEquals(LocalDate.of(2025, 9, 25), ((DeadlineCommand) cmd).getDeadline());
+    }
+
+    @Test
+    @DisplayName("list: accepts page and --limit, rejects anything else")
+    void list_acceptsPageAndLimitOnly() throws Exception {
+        assertParsesTo("  LIST ", ListCommand.class);
+        assertParsesTo("list page 3", ListCommand.class);
+        assertParsesTo("list --limit 50 page 2", ListCommand.class);
+        assertThrows(MarioException.class, () -> parser.parse("list all"));
+        assertThrows(MarioException.class, () -> parser.parse("list page 0"));
+        assertThrows(MarioException.class, () -> parser.parse("list --limit"));
+        assertThrows(InvalidCommandException.class, () -> parser.parse("lists"));
+    }
+
     @Test
     @DisplayName("event: parses ISO datetimes for /from and /to")
     void event_parsesIsoDateTimes() throws Exception {
         assertParsesTo("event party /from 2025-09-25T18:00 /to 2025-09-25T21:00", EventCommand.class);
     }
 
+    @Test
+    @DisplayName("event: missing /to or an empty /from throws")
+    void event_missingTimes_throws() {
+        assertThrows(EmptyEventTimeException.class, () -> parser.parse("event party /from 2025-09-25T18:00"));
+        assertThrows(EmptyEventTimeException.class, () -> parser.parse("event party /from  /to 2025-09-25T21:00"));
+    }
+
 
     @Test
     @DisplayName("view: defaults to today when no date specified")
@@ -50,6 +86,38 @@ public class ParserTest {
         assertParsesTo("view 2025-09-25", ViewCommand.class);
     }
 
+    @Test
+    @DisplayName("view: accepts an ISO date range")
+    void view_acceptsDateRange() throws Exception {
+        assertParsesTo("view 2025-09-01 2025-09-30", ViewCommand.class);
+    }
+
+    @Test
+    @DisplayName("view: range ending before it starts throws")
+    void view_reversedRange_throws() {
+        assertThrows(MarioException.class, () -> parser.parse("view 2025-09-30 2025-09-01"));
+    }
+
+    @Test
+    @DisplayName("mark/unmark/delete: accept a #id as well as a list number")
+    void mark_acceptsTaskId() throws Exception {
+        assertParsesTo("mark #12", MarkCommand.class);
+        assertParsesTo("unmark 2", UnmarkCommand.class);
+        assertParsesTo("delete #3", DeleteCommand.class);
+        assertThrows(MarioException.class, () -> parser.parse("mark #twelve"));
+    }
+
+    @Test
+    @DisplayName("storage line: leading #id is kept on the task")
+    void parseStorageLine_readsId() {
+        Task task = Parser.parseStorageLine("#42 [D][X] ip (by: 2025-09-22)");
+        assertEquals(42, task.getId());
+        assertEquals("ip", task.getDescription());
+        assertTrue(task.isDone());
+        assertEquals(Task.NO_ID, Parser.parseStorageLine("[T][ ] help").getId());
+        assertNull(Parser.parseStorageLine("#x [T][ ] help"));
+    }
+
     // --- helper ---
     private void assertParsesTo(String input, Class<?> expectedClass) throws Exception {
         var cmd = parser.parse(input);
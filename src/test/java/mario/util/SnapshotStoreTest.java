@@ -0,0 +1,110 @@
+package mario.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SnapshotStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void restore_returnsEachRetainedVersion() throws IOException {
+        SnapshotStore store = new SnapshotStore(dir, 5);
+        byte[] first = taskFile(2000, -1);
+        byte[] second = taskFile(2000, 1000);
+
+        int v1 = store.snapshot(first);
+        int v2 = store.snapshot(second);
+
+        assertEquals(List.of(v1, v2), store.listVersions());
+        assertArrayEquals(first, store.restore(v1));
+        assertArrayEquals(second, store.restore(v2));
+    }
+
+    @Test
+    void snapshot_afterSmallEdit_reusesMostBlocks() throws IOException {
+        SnapshotStore store = new SnapshotStore(dir, 5);
+        store.snapshot(taskFile(20000, -1));
+        long blocksBefore = countBlocks();
+
+        store.snapshot(taskFile(20000, 10000));
+        long newBlocks = countBlocks() - blocksBefore;
+
+        assertTrue(blocksBefore > 50, "Test content should span many blocks");
+        assertTrue(newBlocks <= 3, "A one-line edit should only add a few blocks, added " + newBlocks);
+    }
+
+    @Test
+    void snapshot_prunesVersionsBeyondRetention() throws IOException {
+        SnapshotStore store = new SnapshotStore(dir, 2);
+        store.snapshot(taskFile(100, -1));
+        int v2 = store.snapshot(taskFile(100, 1));
+        int v3 = store.snapshot(taskFile(100, 2));
+
+        assertEquals(List.of(v2, v3), store.listVersions());
+        assertArrayEquals(taskFile(100, 1), store.restore(v2));
+    }
+
+    @Test
+    void restore_damagedBlock_throws() throws IOException {
+        SnapshotStore store = new SnapshotStore(dir, 5);
+        int version = store.snapshot(taskFile(2000, -1));
+        Path block;
+        try (Stream<Path> files = Files.list(dir.resolve("blocks"))) {
+            block = files.findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(block);
+        bytes[0] ^= 1;
+        Files.write(block, bytes);
+
+        IOException e = assertThrows(IOException.class, () -> store.restore(version));
+        assertTrue(e.getMessage().contains(block.getFileName().toString()), e.getMessage());
+    }
+
+    @Test
+    void reopen_keepsPruningAndDropsUnreferencedBlocks() throws IOException {
+        SnapshotStore first = new SnapshotStore(dir, 2);
+        first.snapshot(taskFile(2000, -1));
+        int v2 = first.snapshot(taskFile(2000, 1));
+        long blocks = countBlocks();
+        Files.write(dir.resolve("blocks").resolve("leftover"), new byte[] {1, 2, 3});
+
+        SnapshotStore reopened = new SnapshotStore(dir, 2);
+        assertEquals(List.of(1, v2), reopened.listVersions());
+        assertEquals(blocks, countBlocks());
+
+        int v3 = reopened.snapshot(taskFile(2000, 2));
+        int v4 = reopened.snapshot(taskFile(2000, 3));
+        assertEquals(List.of(v3, v4), reopened.listVersions());
+        assertArrayEquals(taskFile(2000, 3), reopened.restore(v4));
+        assertArrayEquals(taskFile(2000, 2), new SnapshotStore(dir, 2).restore(v3));
+    }
+
+    private long countBlocks() throws IOException {
+        try (Stream<Path> files = Files.list(dir.resolve("blocks"))) {
+            return files.count();
+        }
+    }
+
+    /** Builds a storage-style task file, marking the task at {@code doneIndex} as done. */
+    private static byte[] taskFile(int size, int doneIndex) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            sb.append("[T][").append(i == doneIndex ? 'X' : ' ').append("] task number ").append(i).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
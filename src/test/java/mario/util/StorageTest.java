@@ -0,0 +1,151 @@
+package mario.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import mario.tasks.Task;
+
+public class StorageTest {
+    private final String prefix = "storage-test-" + System.nanoTime();
+    private final String fileName = prefix + ".txt";
+
+    @AfterEach
+    void deleteFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(Path.of("data"))) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                if (p.toString().contains(prefix)) {
+                    Files.delete(p);
+                }
+            }
+        }
+    }
+
+    @Test
+    void saveThenLoad_roundTripsInBothFormats() throws IOException {
+        for (Storage.Format format : Storage.Format.values()) {
+            Storage storage = new Storage(fileName, format);
+            storage.save(tasks("a", "b", "c"));
+
+            Storage reopened = new Storage(fileName, format);
+            assertEquals(List.of("a", "b", "c"), descriptions(reopened.load()));
+            assertEquals(List.of(), reopened.getLoadProblems());
+        }
+    }
+
+    @Test
+    void load_damagedTextFile_reportsAndKeepsBackup() throws IOException {
+        new Storage(fileName).save(tasks("water plants", "pay rent"));
+        Path file = Path.of("data", fileName);
+        String damaged = Files.readString(file, StandardCharsets.UTF_8).replace("rent", "rant");
+        Files.writeString(file, damaged, StandardCharsets.UTF_8);
+
+        Storage storage = new Storage(fileName);
+        ArrayList<Task> loaded = storage.load();
+
+        assertEquals(List.of("water plants", "pay rant"), descriptions(loaded));
+        assertEquals(1, storage.getLoadProblems().size());
+        try (Stream<Path> files = Files.list(Path.of("data"))) {
+            assertTrue(files.anyMatch(p -> p.getFileName().toString().startsWith(fileName + ".corrupt-")));
+        }
+    }
+
+    @Test
+    void load_damagedJournalRecord_isSkippedAndReported() throws IOException {
+        Storage storage = new Storage(fileName);
+        storage.load();
+        ArrayList<Task> list = tasks("a", "b");
+        for (Task t : list) {
+            storage.appendAdd(t);
+        }
+        storage.flush();
+        Path journal = Path.of("data", fileName + ".journal");
+        Files.writeString(journal, Files.readString(journal).replace("] b", "] x"));
+
+        Storage reopened = new Storage(fileName);
+        assertEquals(List.of("a"), descriptions(reopened.load()));
+        assertEquals(1, reopened.getLoadProblems().size());
+    }
+
+    @Test
+    void load_journalLeftBySaveThatCrashed_isNotReplayedAgain() throws IOException {
+        Storage storage = new Storage(fileName);
+        storage.load();
+        ArrayList<Task> list = tasks("a", "b");
+        for (Task t : list) {
+            storage.appendAdd(t);
+        }
+        storage.flush();
+        Path journal = Path.of("data", fileName + ".journal");
+        byte[] staleJournal = Files.readAllBytes(journal);
+        storage.save(list);
+        // Simulate a crash between writing the new file and removing the old journal
+        Files.write(journal, staleJournal);
+
+        Storage reopened = new Storage(fileName);
+        assertEquals(List.of("a", "b"), descriptions(reopened.load()));
+        assertEquals(List.of(), reopened.getLoadProblems());
+    }
+
+    @Test
+    void load_lineWithImpossibleDate_isSkippedAndBackedUpOnce() throws IOException {
+        Path file = Path.of("data", fileName);
+        Files.writeString(file, "[T][ ] a\n[D][ ] b (by: 2025-19-02)\n[T][ ] c\n", StandardCharsets.UTF_8);
+
+        for (int i = 0; i < 2; i++) {
+            Storage storage = new Storage(fileName);
+            assertEquals(List.of("a", "c"), descriptions(storage.load()));
+            assertEquals(1, storage.getLoadProblems().size());
+        }
+        try (Stream<Path> files = Files.list(Path.of("data"))) {
+            assertEquals(1, files.filter(p -> p.getFileName().toString().startsWith(fileName + ".corrupt-")).count());
+        }
+    }
+
+    @Test
+    void load_journalNewerThanTruncatedFile_isBackedUp() throws IOException {
+        Storage storage = new Storage(fileName);
+        storage.load();
+        storage.save(tasks("a"));
+        storage.appendAdd(tasks("a", "b").get(1));
+        storage.flush();
+        Path file = Path.of("data", fileName);
+        // Lose the footer, and with it the generation the journal follows
+        Files.writeString(file, "[T][ ] a\n", StandardCharsets.UTF_8);
+
+        Storage reopened = new Storage(fileName);
+        assertEquals(List.of("a"), descriptions(reopened.load()));
+        assertEquals(1, reopened.getLoadProblems().size());
+        assertTrue(Files.notExists(Path.of("data", fileName + ".journal")));
+        try (Stream<Path> files = Files.list(Path.of("data"))) {
+            assertTrue(files.anyMatch(p -> p.getFileName().toString().startsWith(fileName + ".journal.corrupt-")));
+        }
+    }
+
+    private static ArrayList<Task> tasks(String... descriptions) {
+        TaskManager manager = new TaskManager(10);
+        for (String d : descriptions) {
+            manager.addToDo(d);
+        }
+        return new ArrayList<>(manager.getTasks());
+    }
+
+    private static List<String> descriptions(List<Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) {
+            out.add(t.getDescription());
+        }
+        return out;
+    }
+}
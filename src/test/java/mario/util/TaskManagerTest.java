@@ -2,15 +2,29 @@ package mario.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Test;
 
 import mario.tasks.Deadline;
 import mario.tasks.Events;
+import mario.tasks.Task;
+import mario.tasks.TimedTask;
 import mario.tasks.ToDo;
 
 public class TaskManagerTest {
@@ -88,4 +102,269 @@ public class TaskManagerTest {
         assertInstanceOf(ToDo.class, manager.getTasks().get(0));
         assertInstanceOf(ToDo.class, manager.getTasks().get(1));
     }
+
+    @Test
+    void find_matchesSubstringsIgnoringCaseInListOrder() {
+        TaskManager manager = new TaskManager(10);
+        manager.addToDo("Read BOOK");
+        manager.addToDo("buy milk");
+        manager.addToDo("return book to library");
+        manager.addToDo("bookkeeping");
+
+        assertEquals(List.of("Read BOOK", "return book to library", "bookkeeping"), descriptions(manager.find("book")));
+        assertEquals(List.of("return book to library"), descriptions(manager.find("k to")));
+        assertEquals(List.of("buy milk"), descriptions(manager.find("Mi")));
+        assertTrue(manager.find("kob").isEmpty());
+    }
+
+    @Test
+    void find_doesNotReturnDeletedTasks() {
+        TaskManager manager = new TaskManager(10);
+        manager.addToDo("book one");
+        manager.addToDo("book two");
+        manager.deleteTask(0);
+
+        assertEquals(List.of("book two"), descriptions(manager.find("book")));
+        assertEquals(List.of("book two"), descriptions(manager.find("bo")));
+    }
+
+    @Test
+    void find_matchesFullScanAfterRandomEdits() {
+        TaskManager manager = new TaskManager(10);
+        List<Task> expected = new ArrayList<>();
+        String[] words = {"book", "bookkeeping", "boo", "okay", "look", "oo", "cook book"};
+        Random random = new Random(11);
+        for (int round = 0; round < 3000; round++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                String description = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+                expected.add(manager.addToDo(description));
+            } else {
+                int index = random.nextInt(expected.size());
+                assertSame(expected.remove(index), manager.deleteTask(index));
+            }
+        }
+
+        for (String keyword : new String[] {"book", "ook", "okk", "kee", "book boo", "ok lo", "cook", "o", "zzz"}) {
+            List<Task> scanned = expected.stream().filter(t -> t.getDescription().contains(keyword)).toList();
+            assertEquals(scanned, manager.find(keyword), keyword);
+        }
+    }
+
+    @Test
+    void getScheduleFor_ordersByTimeThenDescription() {
+        TaskManager manager = new TaskManager(10);
+        LocalDate day = LocalDate.of(2025, 9, 20);
+        manager.addDeadline("b report", day);
+        manager.addEvent("overnight", day.minusDays(1).atTime(22, 0), day.atTime(1, 0));
+        manager.addDeadline("A essay", day);
+        manager.addEvent("lunch", day.atTime(12, 0), day.atTime(13, 0));
+        manager.addEvent("late", day.atTime(23, 59), day.atTime(23, 59));
+        manager.addEvent("tomorrow", day.plusDays(1).atTime(9, 0), day.plusDays(1).atTime(10, 0));
+        manager.addDeadline("other day", day.plusDays(1));
+
+        assertEquals(List.of("overnight", "lunch", "A essay", "b report", "late"),
+                descriptions(manager.getScheduleFor(day)));
+    }
+
+    @Test
+    void getScheduleFor_matchesFullScanAfterRandomEdits() {
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        TaskManager manager = randomlyEditedSchedule(base);
+
+        for (int day = 0; day < 35; day++) {
+            LocalDate date = base.plusDays(day);
+            assertEquals(scanSchedule(manager.getTasks(), date), manager.getScheduleFor(date));
+        }
+    }
+
+    @Test
+    void forEachScheduledDay_matchesNonEmptyDaysOfGetScheduleFor() throws IOException {
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        TaskManager manager = randomlyEditedSchedule(base);
+        LocalDate from = base.minusDays(3);
+        LocalDate to = base.plusDays(20);
+
+        Map<LocalDate, List<TimedTask>> expected = new TreeMap<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (!manager.getScheduleFor(date).isEmpty()) {
+                expected.put(date, manager.getScheduleFor(date));
+            }
+        }
+        assertEquals(expected, scheduleBetween(manager, from, to));
+        assertEquals(Map.of(), scheduleBetween(manager, base.plusYears(1), base.plusYears(50)));
+    }
+
+    @Test
+    void forEachScheduledDay_longEvent_visitsEachDayItSpansOnce() throws IOException {
+        TaskManager manager = new TaskManager(10);
+        LocalDate base = LocalDate.of(2025, 1, 1);
+        manager.addEvent("decade", base.atTime(9, 0), base.plusYears(10).atTime(17, 0));
+        manager.addDeadline("report", base.plusDays(40));
+
+        TreeMap<LocalDate, List<TimedTask>> days = scheduleBetween(manager, base.minusYears(1), base.plusYears(20));
+
+        assertEquals(base.plusYears(10).toEpochDay() - base.toEpochDay() + 1, days.size());
+        assertEquals(base, days.firstKey());
+        assertEquals(List.of("decade", "report"), descriptions(days.get(base.plusDays(40))));
+    }
+
+    @Test
+    void ids_areStableAcrossDeletes() {
+        TaskManager manager = new TaskManager(10);
+        ToDo a = manager.addToDo("a");
+        ToDo b = manager.addToDo("b");
+        ToDo c = manager.addToDo("c");
+
+        assertEquals(List.of(1, 2, 3), List.of(a.getId(), b.getId(), c.getId()));
+        assertSame(b, manager.deleteById(2));
+        assertEquals(2, manager.getSize());
+        assertSame(c, manager.getTask(1));
+        assertSame(c, manager.getTaskById(3));
+        assertNull(manager.getTaskById(2));
+        assertNull(manager.deleteById(2));
+        assertEquals(4, manager.addToDo("d").getId());
+    }
+
+    @Test
+    void addAll_keepsLoadedIdsAndReplacesDuplicates() {
+        TaskManager manager = new TaskManager(10);
+        ToDo first = new ToDo("first");
+        first.setId(7);
+        ToDo clash = new ToDo("clash");
+        clash.setId(7);
+        manager.addAll(List.of(first, clash, new ToDo("fresh")));
+
+        assertEquals(List.of(7, 8, 9), List.of(first.getId(), clash.getId(), manager.getTask(2).getId()));
+    }
+
+    @Test
+    void positionsAndIds_matchPlainListAfterRandomDeletes() {
+        TaskManager manager = new TaskManager(10);
+        List<Task> expected = new ArrayList<>();
+        Random random = new Random(7);
+        for (int round = 0; round < 2000; round++) {
+            if (expected.isEmpty() || random.nextInt(3) > 0) {
+                expected.add(manager.addToDo("task " + round));
+            } else if (random.nextBoolean()) {
+                int index = random.nextInt(expected.size());
+                assertSame(expected.remove(index), manager.deleteTask(index));
+            } else {
+                Task victim = expected.remove(random.nextInt(expected.size()));
+                assertSame(victim, manager.deleteById(victim.getId()));
+            }
+        }
+
+        assertEquals(expected.size(), manager.getSize());
+        assertEquals(expected, new ArrayList<>(manager.getTasks()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), manager.getTask(i));
+            assertSame(expected.get(i), manager.getTaskById(expected.get(i).getId()));
+        }
+    }
+
+    @Test
+    void getTasksPage_matchesSubListAfterDeletes() {
+        TaskManager manager = new TaskManager(10);
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            expected.add(manager.addToDo("task " + i));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertSame(expected.remove(i), manager.deleteTask(i));
+        }
+
+        for (int from = 0; from <= expected.size(); from += 7) {
+            List<Task> page = manager.getTasks(from, 20);
+            assertEquals(expected.subList(from, Math.min(expected.size(), from + 20)), page);
+        }
+        assertEquals(0, manager.getTasks(500, 20).size());
+        assertEquals(expected, manager.getTasks(0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void concurrentWritersAndReaders_keepListConsistent() throws Exception {
+        TaskManager manager = new TaskManager(10);
+        int writers = 4;
+        int perWriter = 2000;
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perWriter; i++) {
+                    ToDo todo = manager.addToDo("writer " + writer + " task " + i);
+                    if (i % 2 == 0) {
+                        manager.deleteById(todo.getId());
+                    }
+                }
+            }));
+        }
+        for (int r = 0; r < 2; r++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    List<Task> snapshot = manager.getTasks();
+                    for (int j = 1; j < snapshot.size(); j++) {
+                        assertTrue(snapshot.get(j - 1).getId() < snapshot.get(j).getId());
+                    }
+                    manager.find("task 1");
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        assertEquals(writers * perWriter / 2, manager.getSize());
+        assertEquals(writers * perWriter / 2, manager.find("task").size());
+    }
+
+    private static TreeMap<LocalDate, List<TimedTask>> scheduleBetween(TaskManager manager, LocalDate from,
+            LocalDate to) throws IOException {
+        TreeMap<LocalDate, List<TimedTask>> days = new TreeMap<>();
+        int visited = manager.forEachScheduledDay(from, to, (day, schedule) -> {
+            assertNull(days.put(day, schedule));
+        });
+        assertEquals(days.size(), visited);
+        return days;
+    }
+
+    /** Adds deadlines and events, some spanning days, over about a month from {@code base}, deleting some. */
+    private static TaskManager randomlyEditedSchedule(LocalDate base) {
+        TaskManager manager = new TaskManager(10);
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime start = base.atStartOfDay().plusMinutes(random.nextInt(60 * 24 * 30));
+            if (random.nextBoolean()) {
+                manager.addEvent("e" + random.nextInt(50), start, start.plusMinutes(random.nextInt(60 * 24 * 3)));
+            } else {
+                manager.addDeadline("d" + random.nextInt(50), start.toLocalDate());
+            }
+            if (random.nextInt(4) == 0) {
+                manager.deleteTask(random.nextInt(manager.getSize()));
+            }
+        }
+        return manager;
+    }
+
+    /** The straightforward scan-and-sort that the schedule index has to agree with. */
+    private static List<TimedTask> scanSchedule(List<Task> tasks, LocalDate date) {
+        List<TimedTask> result = new ArrayList<>();
+        for (Task t : tasks) {
+            if (t instanceof TimedTask timed && timed.occursOn(date)) {
+                result.add(timed);
+            }
+        }
+        result.sort(Comparator.comparing((TimedTask t) -> t.getScheduleTime(date))
+                .thenComparing(TimedTask::getDescription, String.CASE_INSENSITIVE_ORDER));
+        return result;
+    }
+
+    private static List<String> descriptions(List<? extends Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) {
+            out.add(t.getDescription());
+        }
+        return out;
+    }
 }
@@ -0,0 +1,78 @@
+package mario.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class WriteBehindJournalTest {
+
+    @Test
+    void flush_writesEveryQueuedRecordInOrder(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("tasks.txt.journal");
+        WriteBehindJournal journal = new WriteBehindJournal(file.toFile(), 50);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            journal.append("A [T][ ] task " + i);
+            expected.add("A [T][ ] task " + i);
+        }
+        journal.flush();
+
+        assertEquals(expected, Files.readAllLines(file, StandardCharsets.UTF_8));
+        journal.close();
+    }
+
+    @Test
+    void close_thenAppend_startsANewWriter(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("tasks.txt.journal");
+        WriteBehindJournal journal = new WriteBehindJournal(file.toFile(), 0);
+        journal.append("M #1");
+        journal.close();
+        Files.delete(file);
+
+        journal.append("U #1");
+        journal.flush();
+
+        assertEquals(List.of("U #1"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        journal.close();
+    }
+
+    @Test
+    void failedWrite_thenClose_laterFlushesReturn(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("tasks.txt.journal");
+        // A directory where the journal should be makes the writer fail to open it
+        Files.createDirectory(file);
+        WriteBehindJournal journal = new WriteBehindJournal(file.toFile(), 0);
+        journal.append("M #1");
+        assertThrows(IOException.class, journal::flush);
+        assertThrows(IOException.class, journal::close);
+        Files.delete(file);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> flushed = executor.submit(() -> {
+                journal.append("U #1");
+                journal.flush();
+                return null;
+            });
+            flushed.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(List.of("U #1"), Files.readAllLines(file, StandardCharsets.UTF_8));
+        journal.close();
+    }
+}